@@ -0,0 +1,74 @@
+package com.bonterra.eventtracker.benchmark;
+
+import com.bonterra.eventtracker.EventTrackingServiceApplication;
+import com.bonterra.eventtracker.entity.Event;
+import com.bonterra.eventtracker.service.EventIngestService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Shared fixtures for the benchmarks: deterministic events and a quiet,
+ * isolated application context per benchmark trial.
+ */
+final class BenchmarkSupport {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    private BenchmarkSupport() {
+    }
+
+    static Event event(int i) {
+        Event event = new Event("Benchmark Event " + i, "A fairly typical event description of moderate length #" + i,
+                START.plusHours(i), START.plusHours(i + 2), "Hall " + (i % 20));
+        event.setMinAttendees(10);
+        event.setMaxAttendees(250);
+        event.setLocationNotes("Enter through the north door");
+        event.setPreparationNotes("Projector, 40 chairs, water");
+        return event;
+    }
+
+    static List<Event> events(int count) {
+        List<Event> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Event event = event(i);
+            event.setId(UUID.nameUUIDFromBytes(("event-" + i).getBytes()));
+            events.add(event);
+        }
+        return events;
+    }
+
+    static ConfigurableApplicationContext start(WebApplicationType type) {
+        return new SpringApplicationBuilder(EventTrackingServiceApplication.class)
+                .web(type)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID(),
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    /**
+     * Seeds {@code count} events through the batch ingest path and returns them
+     * with their generated ids.
+     */
+    static List<Event> seed(ConfigurableApplicationContext context, int count) {
+        EventIngestService ingestService = context.getBean(EventIngestService.class);
+        List<Event> seeded = new ArrayList<>(count);
+        EventIngestService.Ingestion ingestion = ingestService.begin();
+        for (int i = 0; i < count; i++) {
+            Event event = event(i);
+            seeded.add(event);
+            ingestion.add(event);
+        }
+        ingestion.finish();
+        return seeded;
+    }
+}
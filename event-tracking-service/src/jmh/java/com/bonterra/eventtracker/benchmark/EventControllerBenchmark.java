@@ -0,0 +1,99 @@
+package com.bonterra.eventtracker.benchmark;
+
+import com.bonterra.eventtracker.entity.Event;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Full request path through {@code EventController} (dispatch, JSON binding,
+ * persistence, serialization) for single writes and for the batch endpoint.
+ * Throughput is reported per created event so single and batch creates compare
+ * directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EventControllerBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+    private static final int SEEDED_EVENTS = 10_000;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private List<UUID> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.start(WebApplicationType.SERVLET);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        ids = BenchmarkSupport.seed(context, SEEDED_EVENTS).stream().map(Event::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int createEvent() throws Exception {
+        return mockMvc.perform(post("/api/events")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json("Created " + sequence.incrementAndGet())))
+                .andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int createEventsInBatch() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            ndjson.append(json("Batched " + sequence.incrementAndGet())).append('\n');
+        }
+        return mockMvc.perform(post("/api/events/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson.toString()))
+                .andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    public int updateEvent() throws Exception {
+        UUID id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        return mockMvc.perform(put("/api/events/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json("Updated " + sequence.incrementAndGet())))
+                .andReturn().getResponse().getStatus();
+    }
+
+    private static String json(String name) {
+        LocalDateTime start = LocalDateTime.of(2026, 3, 1, 9, 0);
+        return "{\"name\":\"" + name + "\",\"description\":\"Benchmark\","
+                + "\"startDate\":\"" + start + "\",\"endDate\":\"" + start.plusHours(2) + "\","
+                + "\"location\":\"Hall 1\"}";
+    }
+}
@@ -0,0 +1,64 @@
+package com.bonterra.eventtracker.benchmark;
+
+import com.bonterra.eventtracker.entity.Event;
+import com.bonterra.eventtracker.repository.EventRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point lookups against H2 at increasing table sizes. Both lookups should stay
+ * flat as the table grows since each is a single index probe.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventRepositoryBenchmark {
+
+    @Param({"1000", "100000"})
+    public int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private EventRepository eventRepository;
+    private List<UUID> ids;
+    private List<String> names;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.start(WebApplicationType.NONE);
+        eventRepository = context.getBean(EventRepository.class);
+        List<Event> seeded = BenchmarkSupport.seed(context, tableSize);
+        ids = seeded.stream().map(Event::getId).toList();
+        names = seeded.stream().map(e -> e.getName().toUpperCase()).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Event> findById() {
+        return eventRepository.findById(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    @Benchmark
+    public Optional<Event> findByNameIgnoreCase() {
+        return eventRepository.findByNameIgnoreCase(names.get(ThreadLocalRandom.current().nextInt(names.size())));
+    }
+}
@@ -0,0 +1,67 @@
+package com.bonterra.eventtracker.benchmark;
+
+import com.bonterra.eventtracker.entity.Event;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of a single event and of list payloads the size of a page and
+ * of a full-table dump.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventSerializationBenchmark {
+
+    private static final TypeReference<List<Event>> EVENT_LIST = new TypeReference<>() {
+    };
+
+    @Param({"100", "10000"})
+    public int listSize;
+
+    private JsonMapper mapper;
+    private Event event;
+    private byte[] eventJson;
+    private List<Event> events;
+    private byte[] eventsJson;
+
+    @Setup
+    public void setUp() {
+        mapper = JsonMapper.builder().build();
+        event = BenchmarkSupport.events(1).get(0);
+        eventJson = mapper.writeValueAsBytes(event);
+        events = BenchmarkSupport.events(listSize);
+        eventsJson = mapper.writeValueAsBytes(events);
+    }
+
+    @Benchmark
+    public byte[] serializeEvent() {
+        return mapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public Event deserializeEvent() {
+        return mapper.readValue(eventJson, Event.class);
+    }
+
+    @Benchmark
+    public byte[] serializeList() {
+        return mapper.writeValueAsBytes(events);
+    }
+
+    @Benchmark
+    public List<Event> deserializeList() {
+        return mapper.readValue(eventsJson, EVENT_LIST);
+    }
+}
@@ -0,0 +1,519 @@
+package com.bonterra.eventtracker.load;
+
+import com.bonterra.eventtracker.entity.UuidV7;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replays the dashboard's traffic against the service running in its own JVM,
+ * started from the boot jar in the prod profile on a file-backed H2 database
+ * seeded with {@code load.seedEvents} events. Requests arrive as a Poisson
+ * process at {@code load.rate} per second however slowly the service answers
+ * (an open model), and each latency is measured from when the request was
+ * due, so a stall shows up in the percentiles instead of throttling the load.
+ * <p>
+ * The operations are the calls {@code eventService.js} makes: list, active and
+ * archived pages, search, get by id, create, update and delete, weighted by
+ * {@code load.mix}. The results are compared with the stored baseline and the
+ * run fails when an operation got slower, slower to serve its share of the
+ * rate, or more error-prone by more than {@code load.tolerance}. With
+ * {@code load.updateBaseline=true} the run records the baseline instead; without
+ * it a missing baseline fails the run before any load is sent.
+ * Admission control is off unless {@code load.admission=true}, so an
+ * overloaded run shows up as latency rather than as shed requests.
+ * <p>
+ * Arguments: boot jar, working directory for the databases and service log.
+ */
+public class LoadTestHarness {
+
+    static final String DEFAULT_MIX = "get=35,list=10,active=10,archived=10,search=15,create=8,update=8,delete=4";
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(15);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+    // Requests in flight beyond this are counted as errors rather than sent,
+    // so a stalled service cannot exhaust the driver's memory and sockets
+    private static final int MAX_OUTSTANDING = 20_000;
+    private static final int SEED_BATCH_SIZE = 1000;
+    private static final int SEED_COMMIT_SIZE = 100_000;
+    private static final int SAMPLE_IDS = 50_000;
+    private static final LocalDateTime SEED_START = LocalDateTime.of(2000, 1, 1, 9, 0);
+    private static final long SEED_SPAN_SECONDS = Duration.ofDays(40 * 365).toSeconds();
+    // Latency changes below this are noise at any tolerance
+    private static final double LATENCY_SLACK_MILLIS = 1.0;
+    private static final String PAGE = "limit=500&fields=name,description,startDate,endDate,location,"
+            + "minAttendees,maxAttendees,version";
+    private static final Pattern ID = Pattern.compile("\"id\":\"([0-9a-f-]{36})\"");
+
+    enum Operation {
+        GET, LIST, ACTIVE, ARCHIVED, SEARCH, CREATE, UPDATE, DELETE
+    }
+
+    record Config(int seedEvents, double rate, int seconds, String mix, boolean admission) {
+    }
+
+    record Latency(long count, long errors, double throughput, double p50Millis, double p99Millis,
+            double p999Millis, double maxMillis) {
+
+        static Latency of(Histogram histogram, long errors, int seconds) {
+            return new Latency(histogram.getTotalCount(), errors, (double) histogram.getTotalCount() / seconds,
+                    histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0, histogram.getMaxValue() / 1000.0);
+        }
+
+        double errorRate() {
+            return count == 0 ? 0 : (double) errors / count;
+        }
+    }
+
+    record Report(Config config, Map<String, Latency> operations) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path bootJar = Path.of(args[0]);
+        Path workDir = Files.createDirectories(Path.of(args[1]).toAbsolutePath());
+        Config config = new Config(Integer.getInteger("load.seedEvents", 100_000),
+                Double.parseDouble(System.getProperty("load.rate", "500")),
+                Integer.getInteger("load.seconds", 60),
+                System.getProperty("load.mix", DEFAULT_MIX),
+                Boolean.getBoolean("load.admission"));
+        int warmupSeconds = Integer.getInteger("load.warmup", 15);
+        double tolerance = Double.parseDouble(System.getProperty("load.tolerance", "0.25"));
+        Path baseline = Path.of(System.getProperty("load.baseline", "baseline.json"));
+        Path results = Path.of(System.getProperty("load.results", workDir.resolve("results.json").toString()));
+        boolean updateBaseline = Boolean.getBoolean("load.updateBaseline");
+        Map<Operation, Integer> mix = parseMix(config.mix());
+        if (!updateBaseline && !Files.exists(baseline)) {
+            System.out.println("No baseline at " + baseline + "; record one with -Pload.updateBaseline=true");
+            System.exit(1);
+        }
+
+        List<String> ids = prepareDatabase(workDir, config.seedEvents());
+        int port = freePort();
+        Process service = startService(bootJar, workDir, port, config.admission());
+        Report report;
+        try {
+            String baseUrl = "http://localhost:" + port;
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            awaitReady(client, baseUrl, service);
+            Traffic traffic = new Traffic(baseUrl + "/api/events", ids, mix);
+
+            System.out.printf("Warming up for %d s at %.0f req/s%n", warmupSeconds, config.rate());
+            drive(client, traffic, config.rate(), warmupSeconds);
+            System.out.printf("Measuring for %d s at %.0f req/s%n", config.seconds(), config.rate());
+            report = new Report(config, drive(client, traffic, config.rate(), config.seconds()));
+        } finally {
+            service.destroy();
+            if (!service.waitFor(60, TimeUnit.SECONDS)) {
+                service.destroyForcibly();
+            }
+        }
+
+        print(report);
+        JsonMapper mapper = JsonMapper.builder().build();
+        Files.createDirectories(results.toAbsolutePath().getParent());
+        mapper.writerWithDefaultPrettyPrinter().writeValue(results.toFile(), report);
+        System.out.println("Results written to " + results);
+
+        if (updateBaseline) {
+            mapper.writerWithDefaultPrettyPrinter().writeValue(baseline.toFile(), report);
+            System.out.println("Baseline recorded in " + baseline);
+            return;
+        }
+        List<String> regressions = regressions(mapper.readValue(baseline.toFile(), Report.class), report, tolerance);
+        if (!regressions.isEmpty()) {
+            System.out.println("\nRegressions against " + baseline + ":");
+            regressions.forEach(regression -> System.out.println("  " + regression));
+            System.exit(1);
+        }
+        System.out.printf("No regression beyond %.0f%% against %s%n", tolerance * 100, baseline);
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight in load.mix, got " + entry);
+            }
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1].trim()));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("load.mix needs at least one positive weight");
+        }
+        return weights;
+    }
+
+    /**
+     * Seeds a template database once per size and copies it for every run, so
+     * each run starts from the same rows. Returns a sample of the seeded ids.
+     */
+    static List<String> prepareDatabase(Path workDir, int events) throws IOException, SQLException {
+        Path template = workDir.resolve("seed-" + events);
+        Path idsFile = workDir.resolve("seed-" + events + ".ids");
+        Path templateFile = Path.of(template + ".mv.db");
+        // The id sample is written last, so without it the template is incomplete
+        if (!Files.exists(idsFile) || !Files.exists(templateFile)) {
+            Files.deleteIfExists(templateFile);
+            System.out.printf("Seeding %d events into %s%n", events, templateFile);
+            List<String> sample = seed("jdbc:h2:file:" + template, events);
+            Path partial = workDir.resolve(idsFile.getFileName() + ".tmp");
+            Files.write(partial, sample);
+            Files.move(partial, idsFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.copy(templateFile, workDir.resolve("run.mv.db"), StandardCopyOption.REPLACE_EXISTING);
+        return Files.readAllLines(idsFile);
+    }
+
+    private static List<String> seed(String url, int events) throws IOException, SQLException {
+        long stepSeconds = Math.max(1, SEED_SPAN_SECONDS / events);
+        Random random = new Random(42);
+        List<String> sample = new ArrayList<>(SAMPLE_IDS);
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            try (Statement statement = connection.createStatement();
+                    InputStream schema = LoadTestHarness.class.getResourceAsStream("/db/schema.sql")) {
+                for (String ddl : new String(schema.readAllBytes(), StandardCharsets.UTF_8).split(";")) {
+                    if (!ddl.isBlank()) {
+                        statement.execute(ddl);
+                    }
+                }
+            }
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement("insert into events (id, name, "
+                    + "normalized_name, description, start_date, end_date, location, max_attendees, "
+                    + "registered_attendees, version) values (?, ?, ?, ?, ?, ?, ?, ?, 0, 0)")) {
+                for (int i = 0; i < events; i++) {
+                    UUID id = UuidV7.next();
+                    LocalDateTime start = SEED_START.plusSeconds(i * stepSeconds);
+                    insert.setObject(1, id);
+                    insert.setString(2, "Seed Event " + i);
+                    insert.setString(3, "seed event " + i);
+                    insert.setString(4, "Seeded for load testing");
+                    insert.setObject(5, start);
+                    insert.setObject(6, start.plusHours(2));
+                    insert.setString(7, "Hall " + i % 50);
+                    insert.setInt(8, 100 + i % 400);
+                    insert.addBatch();
+
+                    // Reservoir sample, so every seeded row is equally likely to be read
+                    if (sample.size() < SAMPLE_IDS) {
+                        sample.add(id.toString());
+                    } else {
+                        int slot = random.nextInt(i + 1);
+                        if (slot < SAMPLE_IDS) {
+                            sample.set(slot, id.toString());
+                        }
+                    }
+
+                    if ((i + 1) % SEED_BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                    }
+                    if ((i + 1) % SEED_COMMIT_SIZE == 0) {
+                        connection.commit();
+                        System.out.printf("  %d events%n", i + 1);
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            }
+        }
+        return sample;
+    }
+
+    private static Process startService(Path bootJar, Path workDir, int port, boolean admission)
+            throws IOException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<String> command = List.of(java, "-Xmx" + System.getProperty("load.serviceHeap", "2g"),
+                "-jar", bootJar.toString(),
+                "--server.port=" + port,
+                "--spring.profiles.active=prod",
+                "--spring.datasource.url=jdbc:h2:file:" + workDir.resolve("run"),
+                "--management.endpoint.health.probes.enabled=true",
+                "--eventtracker.admission.enabled=" + admission,
+                "--logging.level.root=WARN");
+        Path log = workDir.resolve("service.log");
+        System.out.println("Starting the service on port " + port + ", log in " + log);
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    // Ready only once the startup listeners have built the in-memory indexes
+    private static void awaitReady(HttpClient client, String baseUrl, Process service) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health/readiness"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!service.isAlive()) {
+                throw new IllegalStateException("Service exited with status " + service.exitValue());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(200);
+        }
+        throw new IllegalStateException("Service was not ready within " + STARTUP_TIMEOUT);
+    }
+
+    /**
+     * Sends requests at Poisson arrivals for {@code seconds}, then waits for
+     * the stragglers. Returns the latencies per operation and in total.
+     */
+    static Map<String, Latency> drive(HttpClient client, Traffic traffic, double rate, int seconds)
+            throws InterruptedException {
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(HIGHEST_LATENCY_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+        Semaphore outstanding = new Semaphore(MAX_OUTSTANDING);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long begin = System.nanoTime();
+        long end = begin + TimeUnit.SECONDS.toNanos(seconds);
+        long due = begin;
+        while (true) {
+            due += (long) (-Math.log(1 - random.nextDouble()) / rate * 1e9);
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Traffic.Call call = traffic.next();
+            if (!outstanding.tryAcquire()) {
+                errors.get(call.operation()).increment();
+                continue;
+            }
+            long scheduled = due;
+            client.sendAsync(call.request(), HttpResponse.BodyHandlers.ofString()).whenComplete((response, failure) -> {
+                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled);
+                outstanding.release();
+                histograms.get(call.operation()).recordValue(Math.min(micros, HIGHEST_LATENCY_MICROS));
+                if (failure != null || response.statusCode() >= 400) {
+                    errors.get(call.operation()).increment();
+                } else {
+                    traffic.completed(call.operation(), response.body());
+                }
+            });
+        }
+        if (!outstanding.tryAcquire(MAX_OUTSTANDING, REQUEST_TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS)) {
+            System.out.println("Some requests never completed");
+        }
+
+        Map<String, Latency> latencies = new LinkedHashMap<>();
+        Histogram all = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+        long allErrors = 0;
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            long operationErrors = errors.get(operation).sum();
+            if (histogram.getTotalCount() > 0 || operationErrors > 0) {
+                latencies.put(operation.name().toLowerCase(Locale.ROOT),
+                        Latency.of(histogram, operationErrors, seconds));
+            }
+            all.add(histogram);
+            allErrors += operationErrors;
+        }
+        latencies.put("all", Latency.of(all, allErrors, seconds));
+        return latencies;
+    }
+
+    /**
+     * Compares every operation the baseline has. Latencies may grow by the
+     * tolerance plus a millisecond, p99.9 by twice the tolerance since a few
+     * slow requests move it; throughput may fall by the tolerance and the
+     * error rate rise by one percentage point.
+     */
+    static List<String> regressions(Report baseline, Report current, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        if (!baseline.config().equals(current.config())) {
+            regressions.add("The baseline was recorded with " + baseline.config() + " but this run used "
+                    + current.config() + "; rerun with -Pload.updateBaseline=true to replace it");
+            return regressions;
+        }
+        baseline.operations().forEach((name, before) -> {
+            Latency now = current.operations().get(name);
+            if (now == null) {
+                regressions.add(name + ": no requests completed");
+                return;
+            }
+            if (now.throughput() < before.throughput() * (1 - tolerance)) {
+                regressions.add(String.format("%s: throughput %.1f req/s, baseline %.1f", name, now.throughput(),
+                        before.throughput()));
+            }
+            checkLatency(regressions, name, "p50", before.p50Millis(), now.p50Millis(), tolerance);
+            checkLatency(regressions, name, "p99", before.p99Millis(), now.p99Millis(), tolerance);
+            checkLatency(regressions, name, "p99.9", before.p999Millis(), now.p999Millis(), 2 * tolerance);
+            if (now.errorRate() > before.errorRate() + 0.01) {
+                regressions.add(String.format("%s: error rate %.2f%%, baseline %.2f%%", name, now.errorRate() * 100,
+                        before.errorRate() * 100));
+            }
+        });
+        return regressions;
+    }
+
+    private static void checkLatency(List<String> regressions, String name, String percentile, double before,
+            double now, double tolerance) {
+        if (now > before * (1 + tolerance) + LATENCY_SLACK_MILLIS) {
+            regressions.add(String.format("%s: %s %.2f ms, baseline %.2f ms", name, percentile, now, before));
+        }
+    }
+
+    private static void print(Report report) {
+        System.out.printf("%n%-10s %9s %9s %9s %9s %9s %9s %9s%n", "operation", "requests", "req/s", "p50 ms",
+                "p99 ms", "p99.9 ms", "max ms", "errors");
+        report.operations().forEach((name, latency) -> System.out.printf("%-10s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9d%n",
+                name, latency.count(), latency.throughput(), latency.p50Millis(), latency.p99Millis(),
+                latency.p999Millis(), latency.maxMillis(), latency.errors()));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Picks operations by weight and builds their requests. Reads and updates
+     * go to the sampled seed ids; deletes take events this run created, so the
+     * seeded rows stay put, and fall back to a create while there are none.
+     */
+    static final class Traffic {
+
+        record Call(Operation operation, HttpRequest request) {
+        }
+
+        private final String baseUrl;
+        private final List<String> ids;
+        private final Operation[] operations;
+        private final int[] cumulativeWeights;
+        private final Queue<String> created = new ConcurrentLinkedQueue<>();
+        private final AtomicLong sequence = new AtomicLong();
+
+        Traffic(String baseUrl, List<String> ids, Map<Operation, Integer> mix) {
+            this.baseUrl = baseUrl;
+            this.ids = ids;
+            this.operations = mix.keySet().toArray(new Operation[0]);
+            this.cumulativeWeights = new int[operations.length];
+            int total = 0;
+            for (int i = 0; i < operations.length; i++) {
+                total += mix.get(operations[i]);
+                cumulativeWeights[i] = total;
+            }
+        }
+
+        Call next() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            int index = 0;
+            while (cumulativeWeights[index] <= roll) {
+                index++;
+            }
+            Operation operation = operations[index];
+            String id = ids.get(random.nextInt(ids.size()));
+
+            return switch (operation) {
+                case GET -> new Call(operation, get("/" + id));
+                case LIST -> new Call(operation, get("?" + PAGE));
+                case ACTIVE -> new Call(operation, get("/active?" + PAGE));
+                case ARCHIVED -> new Call(operation, get("/archived?" + PAGE));
+                case SEARCH -> new Call(operation, get("/search?offset=0&" + PAGE.replace("limit=500", "limit=20")
+                        + "&q=" + URLEncoder.encode("Event " + (1 + random.nextInt(999)), StandardCharsets.UTF_8)));
+                case CREATE -> create();
+                case UPDATE -> new Call(operation, request("/" + id)
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(eventJson("Updated Event ")))
+                        .build());
+                case DELETE -> {
+                    String victim = created.poll();
+                    yield victim == null ? create()
+                            : new Call(operation, request("/" + victim).DELETE().build());
+                }
+            };
+        }
+
+        void completed(Operation operation, String body) {
+            if (operation == Operation.CREATE) {
+                Matcher matcher = ID.matcher(body);
+                if (matcher.find()) {
+                    created.add(matcher.group(1));
+                }
+            }
+        }
+
+        private Call create() {
+            return new Call(Operation.CREATE, request("")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(eventJson("Load Event ")))
+                    .build());
+        }
+
+        private HttpRequest get(String path) {
+            return request(path).GET().build();
+        }
+
+        private HttpRequest.Builder request(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+        }
+
+        private String eventJson(String prefix) {
+            long n = sequence.incrementAndGet();
+            LocalDateTime start = LocalDateTime.now().plusDays(n % 365).withNano(0);
+            return "{\"name\":\"" + prefix + UUID.randomUUID() + "\",\"description\":\"Load test event\","
+                    + "\"startDate\":\"" + start + "\",\"endDate\":\"" + start.plusHours(2) + "\","
+                    + "\"location\":\"Hall " + n % 50 + "\",\"maxAttendees\":200}";
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.bonterra.eventtracker.load;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the service repeatedly in a fresh JVM, once as the plain boot jar with
+ * the default profile and once in production mode (AOT, AppCDS, prod profile),
+ * and reports the time from process launch to the first successful
+ * {@code GET /api/events}. The child runs on the same Java as this process,
+ * which must also be the one that recorded the CDS archive.
+ * <p>
+ * Arguments: boot jar, extracted production jar, CDS archive, runs per mode.
+ */
+public class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    record Result(String mode, long[] millis) {
+
+        long percentile(double percentile) {
+            int index = (int) Math.ceil(percentile / 100 * millis.length) - 1;
+            return millis[Math.max(index, 0)];
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String bootJar = args[0];
+        String prodJar = args[1];
+        String cdsArchive = args[2];
+        int runs = Integer.parseInt(args[3]);
+        String java = ProcessHandle.current().info().command().orElse("java");
+
+        List<Result> results = List.of(
+                measure("default", runs, List.of(java, "-jar", bootJar)),
+                measure("optimized", runs, List.of(java, "-XX:SharedArchiveFile=" + cdsArchive,
+                        "-Dspring.aot.enabled=true", "-Dspring.profiles.active=prod",
+                        "-cp", prodJar, "com.bonterra.eventtracker.EventTrackingServiceApplication")));
+
+        System.out.printf("%n%-10s %6s %10s %10s %10s%n", "mode", "runs", "min ms", "p50 ms", "max ms");
+        for (Result result : results) {
+            System.out.printf("%-10s %6d %10d %10d %10d%n", result.mode(), result.millis().length,
+                    result.millis()[0], result.percentile(50), result.millis()[result.millis().length - 1]);
+        }
+    }
+
+    static Result measure(String mode, int runs, List<String> command) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        long[] millis = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            int port = freePort();
+            List<String> withPort = new ArrayList<>(command);
+            withPort.add("--server.port=" + port);
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/events"))
+                    .timeout(Duration.ofSeconds(5))
+                    .GET()
+                    .build();
+
+            long started = System.nanoTime();
+            Process process = new ProcessBuilder(withPort)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            try {
+                millis[run] = awaitFirstSuccess(client, request, process, started);
+            } finally {
+                process.destroy();
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            }
+            System.out.printf("%s run %d: %d ms%n", mode, run + 1, millis[run]);
+        }
+        Arrays.sort(millis);
+        return new Result(mode, millis);
+    }
+
+    private static long awaitFirstSuccess(HttpClient client, HttpRequest request, Process process, long started)
+            throws Exception {
+        long deadline = started + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Service exited with status " + process.exitValue());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("Service did not answer within " + STARTUP_TIMEOUT);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
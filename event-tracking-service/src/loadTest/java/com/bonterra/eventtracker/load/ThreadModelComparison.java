@@ -0,0 +1,200 @@
+package com.bonterra.eventtracker.load;
+
+import com.bonterra.eventtracker.EventTrackingServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Boots the service twice, once on Tomcat's platform-thread pool and once on
+ * virtual threads, and drives the same closed-model mixed workload against
+ * each: 60% get-by-id, 20% list page, 10% create, 10% update. Both runs use an
+ * identical connection pool so only the threading model differs.
+ * <p>
+ * Arguments: duration in seconds, concurrent clients, seeded events.
+ */
+public class ThreadModelComparison {
+
+    private static final Pattern ID = Pattern.compile("\"id\":\"([0-9a-f-]{36})\"");
+
+    record Result(String mode, long requests, long errors, double seconds, long[] latenciesMicros) {
+
+        double throughput() {
+            return requests / seconds;
+        }
+
+        double percentileMillis(double percentile) {
+            if (latenciesMicros.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * latenciesMicros.length) - 1;
+            return latenciesMicros[Math.max(index, 0)] / 1000.0;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int seconds = Integer.parseInt(args[0]);
+        int clients = Integer.parseInt(args[1]);
+        int seedEvents = Integer.parseInt(args[2]);
+        if (Runtime.version().feature() < 21) {
+            System.err.println("Virtual threads need Java 21 or newer; run with -PjavaVersion=21");
+            System.exit(1);
+        }
+
+        List<Result> results = List.of(
+                run("platform", false, seconds, clients, seedEvents),
+                run("virtual", true, seconds, clients, seedEvents));
+
+        System.out.printf("%n%-10s %10s %10s %10s %10s %8s%n", "mode", "requests", "req/s", "p50 ms", "p99 ms", "errors");
+        for (Result result : results) {
+            System.out.printf("%-10s %10d %10.1f %10.2f %10.2f %8d%n", result.mode(), result.requests(),
+                    result.throughput(), result.percentileMillis(50), result.percentileMillis(99), result.errors());
+        }
+    }
+
+    static Result run(String mode, boolean virtualThreads, int seconds, int clients, int seedEvents)
+            throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(EventTrackingServiceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:" + mode,
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.hikari.maximum-pool-size=50",
+                        "spring.datasource.hikari.minimum-idle=50",
+                        "spring.datasource.hikari.connection-timeout=2000",
+                        // Shedding would hide how each thread model copes with the backlog
+                        "eventtracker.admission.enabled=false")
+                .run();
+        try {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/api/events";
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+            List<String> ids = seed(client, baseUrl, seedEvents);
+
+            // Warm up JIT and caches before measuring
+            drive(client, baseUrl, ids, Math.min(clients, 50), Math.min(seconds, 5), mode + "-warmup");
+            return drive(client, baseUrl, ids, clients, seconds, mode);
+        } finally {
+            context.close();
+        }
+    }
+
+    static List<String> seed(HttpClient client, String baseUrl, int count) throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 9, 0);
+        for (int i = 0; i < count; i++) {
+            ndjson.append(eventJson("Seed Event " + i, start.plusHours(i))).append('\n');
+        }
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/batch"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(ndjson.toString()))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        List<String> ids = new ArrayList<>(count);
+        Matcher matcher = ID.matcher(response.body());
+        while (matcher.find()) {
+            ids.add(matcher.group(1));
+        }
+        return ids;
+    }
+
+    static Result drive(HttpClient client, String baseUrl, List<String> ids, int clients, int seconds, String mode)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+        long[][] latencies = new long[clients][];
+        int[] counts = new int[clients];
+        CountDownLatch done = new CountDownLatch(clients);
+
+        long begin = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            int slot = c;
+            Thread worker = new Thread(() -> {
+                long[] samples = new long[1024];
+                int count = 0;
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long started = System.nanoTime();
+                        int status = call(client, baseUrl, ids);
+                        long elapsed = (System.nanoTime() - started) / 1000;
+                        if (status >= 400) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = elapsed;
+                    }
+                } finally {
+                    latencies[slot] = samples;
+                    counts[slot] = count;
+                    done.countDown();
+                }
+            });
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+        double elapsedSeconds = (System.nanoTime() - begin) / 1e9;
+
+        long[] all = new long[Arrays.stream(counts).sum()];
+        int offset = 0;
+        for (int c = 0; c < clients; c++) {
+            System.arraycopy(latencies[c], 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+        return new Result(mode, all.length, errors.get(), elapsedSeconds, all);
+    }
+
+    private static int call(HttpClient client, String baseUrl, List<String> ids) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String id = ids.get(random.nextInt(ids.size()));
+        int roll = random.nextInt(100);
+        HttpRequest request;
+        if (roll < 60) {
+            request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).GET().build();
+        } else if (roll < 80) {
+            request = HttpRequest.newBuilder(URI.create(baseUrl + "?limit=50")).GET().build();
+        } else if (roll < 90) {
+            request = HttpRequest.newBuilder(URI.create(baseUrl))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            eventJson("Load Event " + UUID.randomUUID(), LocalDateTime.of(2026, 6, 1, 9, 0))))
+                    .build();
+        } else {
+            request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + id))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(
+                            eventJson("Renamed Event " + UUID.randomUUID(), LocalDateTime.of(2026, 7, 1, 9, 0))))
+                    .build();
+        }
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            return 599;
+        }
+    }
+
+    static String eventJson(String name, LocalDateTime start) {
+        return "{\"name\":\"" + name + "\",\"description\":\"Load test event\","
+                + "\"startDate\":\"" + start + "\",\"endDate\":\"" + start.plusHours(2) + "\","
+                + "\"location\":\"Hall " + Math.floorMod(name.hashCode(), 20) + "\"}";
+    }
+}
@@ -0,0 +1,117 @@
+package com.bonterra.eventtracker.load;
+
+import com.bonterra.eventtracker.entity.UuidV7;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Inserts the same number of rows into two tables keyed by a UUID primary key,
+ * one with random version 4 ids and one with time-ordered version 7 ids, and
+ * reports insert throughput and the resulting primary-key index size. Random
+ * keys land on arbitrary index pages, so as the table outgrows the buffer
+ * cache their insert rate falls off and pages are left half full.
+ * <p>
+ * Arguments: rows per table, then optionally a JDBC URL, user and password.
+ * Without a URL a file-backed H2 database in the temp directory is used;
+ * point it at PostgreSQL for numbers that match production.
+ */
+public class UuidKeyComparison {
+
+    private static final int BATCH_SIZE = 1000;
+
+    record Result(String keys, long rows, double seconds, Long indexBytes) {
+
+        double throughput() {
+            return rows / seconds;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        long rows = Long.parseLong(args[0]);
+        String url = args.length > 1 && !args[1].isBlank() ? args[1] : null;
+        String user = args.length > 2 ? args[2] : "";
+        String password = args.length > 3 ? args[3] : "";
+
+        Path h2File = null;
+        if (url == null) {
+            h2File = Files.createTempDirectory("uuid-keys").resolve("db");
+            url = "jdbc:h2:file:" + h2File + ";CACHE_SIZE=65536";
+            user = "sa";
+        }
+
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            List<Result> results = List.of(
+                    run(connection, "uuid_keys_v4", "random v4", rows, UUID::randomUUID),
+                    run(connection, "uuid_keys_v7", "ordered v7", rows, UuidV7::next));
+
+            System.out.printf("%n%-12s %12s %12s %14s%n", "keys", "rows", "rows/s", "index MB");
+            for (Result result : results) {
+                System.out.printf("%-12s %12d %12.0f %14s%n", result.keys(), result.rows(), result.throughput(),
+                        result.indexBytes() == null ? "n/a"
+                                : String.format("%.1f", result.indexBytes() / (1024.0 * 1024.0)));
+            }
+        } finally {
+            if (h2File != null) {
+                try (var files = Files.walk(h2File.getParent())) {
+                    files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+                }
+            }
+        }
+    }
+
+    static Result run(Connection connection, String table, String keys, long rows, Supplier<UUID> ids)
+            throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists " + table);
+            statement.execute("create table " + table + " (id uuid primary key, payload varchar(200) not null)");
+        }
+
+        connection.setAutoCommit(false);
+        long begin = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into " + table + " (id, payload) values (?, ?)")) {
+            for (long i = 0; i < rows; i++) {
+                insert.setObject(1, ids.get());
+                insert.setString(2, "A fairly typical event description of moderate length #" + i);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        return new Result(keys, rows, seconds, indexBytes(connection, table));
+    }
+
+    private static Long indexBytes(Connection connection, String table) throws SQLException {
+        String product = connection.getMetaData().getDatabaseProductName();
+        String sql;
+        if (product.equals("PostgreSQL")) {
+            sql = "select pg_relation_size('" + table + "_pkey')";
+        } else if (product.equals("H2")) {
+            // H2 reports table and indexes together; the payload is identical in
+            // both tables, so the difference is the key index
+            sql = "select disk_space_used('" + table.toUpperCase() + "')";
+        } else {
+            return null;
+        }
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(sql)) {
+            return result.next() ? result.getLong(1) : null;
+        }
+    }
+}
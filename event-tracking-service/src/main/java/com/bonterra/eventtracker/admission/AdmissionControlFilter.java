@@ -0,0 +1,207 @@
+package com.bonterra.eventtracker.admission;
+
+import com.bonterra.eventtracker.controller.ErrorResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Admits event API requests only while fewer than the adaptive
+ * {@link GradientLimit} are in flight, each {@link Priority} up to its share,
+ * and answers the rest at once with 503 and {@code Retry-After} instead of
+ * letting them queue for a worker thread. The change stream is exempt: its
+ * connections stay open for as long as the client listens.
+ * <p>
+ * An export holds its place until the stream finishes. Exports and batch
+ * imports take time in proportion to their size, so their latency is not fed
+ * to the limit.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(prefix = "eventtracker.admission", name = "enabled", havingValue = "true")
+public class AdmissionControlFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final String BASE_PATH = "/api/events";
+    private static final Pattern BY_ID = Pattern.compile(
+            "/[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}(/.*)?");
+
+    private final GradientLimit limit;
+    private final JsonMapper jsonMapper;
+    private final LongSupplier clock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder[] shed = new LongAdder[Priority.values().length];
+
+    @Autowired
+    public AdmissionControlFilter(JsonMapper jsonMapper,
+            @Value("${eventtracker.admission.initial-limit:50}") int initialLimit,
+            @Value("${eventtracker.admission.min-limit:8}") int minLimit,
+            @Value("${eventtracker.admission.max-limit:200}") int maxLimit,
+            @Value("${eventtracker.admission.latency-tolerance:2.0}") double tolerance,
+            @Value("${eventtracker.admission.baseline-window:30s}") Duration baselineWindow) {
+        this(new GradientLimit(initialLimit, minLimit, maxLimit, tolerance, baselineWindow, System.nanoTime()),
+                jsonMapper, System::nanoTime);
+    }
+
+    AdmissionControlFilter(GradientLimit limit, JsonMapper jsonMapper, LongSupplier clock) {
+        this.limit = limit;
+        this.jsonMapper = jsonMapper;
+        this.clock = clock;
+        for (int i = 0; i < shed.length; i++) {
+            shed[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Priority priority = classify(request.getMethod(), path);
+        if (priority == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!tryAcquire(priority)) {
+            shed[priority.ordinal()].increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            jsonMapper.writeValue(response.getOutputStream(), new ErrorResponse("The service is busy, please retry"));
+            return;
+        }
+
+        long started = clock.getAsLong();
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (completed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+            } else {
+                int finishing = inFlight.getAndDecrement();
+                if (completed) {
+                    record(priority, isMeasured(path), clock.getAsLong() - started, finishing, response.getStatus());
+                }
+            }
+        }
+    }
+
+    /**
+     * The class a request is admitted under, or null for requests that bypass
+     * admission control.
+     */
+    static Priority classify(String method, String path) {
+        if (!path.startsWith(BASE_PATH) || "OPTIONS".equals(method)) {
+            return null;
+        }
+        String rest = path.substring(BASE_PATH.length());
+        if (rest.equals("/stream")) {
+            return null;
+        }
+        boolean read = "GET".equals(method) || "HEAD".equals(method);
+        if (rest.equals("/batch") || read && (rest.isEmpty() || rest.equals("/") || rest.equals("/active")
+                || rest.equals("/archived") || rest.equals("/export"))) {
+            return Priority.BULK;
+        }
+        if (!read || BY_ID.matcher(rest).matches()) {
+            return Priority.CRITICAL;
+        }
+        return Priority.NORMAL;
+    }
+
+    private static boolean isMeasured(String path) {
+        return !path.endsWith("/export") && !path.endsWith("/batch");
+    }
+
+    private boolean tryAcquire(Priority priority) {
+        int allowance = priority.allowance(limit.get());
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= allowance) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void record(Priority priority, boolean measured, long latencyNanos, int inFlight, int status) {
+        // A 503 from behind this filter means a pool or queue ran dry
+        if (status == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+            limit.onOverload();
+        } else if (measured) {
+            limit.onSample(priority, latencyNanos, inFlight, clock.getAsLong());
+        }
+    }
+
+    int limit() {
+        return limit.get();
+    }
+
+    long shed(Priority priority) {
+        return shed[priority.ordinal()].sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("eventtracker.admission.limit", limit, GradientLimit::get)
+                .description("Requests the event API admits at once")
+                .register(registry);
+        Gauge.builder("eventtracker.admission.inflight", inFlight, AtomicInteger::get)
+                .description("Admitted event API requests still running")
+                .register(registry);
+        for (Priority priority : Priority.values()) {
+            FunctionCounter.builder("eventtracker.admission.shed", shed[priority.ordinal()], LongAdder::sum)
+                    .description("Requests turned away with 503")
+                    .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+                    .register(registry);
+        }
+    }
+
+    private final class ReleaseOnComplete implements AsyncListener {
+
+        // Also called after an error or timeout, so the place is returned once
+        @Override
+        public void onComplete(AsyncEvent event) {
+            inFlight.decrementAndGet();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
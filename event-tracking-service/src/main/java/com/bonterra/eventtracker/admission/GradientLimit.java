@@ -0,0 +1,91 @@
+package com.bonterra.eventtracker.admission;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * A concurrency limit steered by latency. Each priority class remembers its
+ * lowest latency over the last one to two windows as the latency it has
+ * without queueing. Completed requests move a smoothed ratio of that baseline
+ * to their own latency. While latency stays within {@code tolerance} times
+ * the baseline the limit grows by about its square root, and beyond that it
+ * shrinks in proportion. A request the service itself answered with 503
+ * cuts the limit multiplicatively.
+ */
+final class GradientLimit {
+
+    // Weight of the newest limit and of the newest latency ratio
+    private static final double SMOOTHING = 0.2;
+    private static final double RATIO_WEIGHT = 0.1;
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final long windowNanos;
+
+    private final long[] currentMin = new long[Priority.values().length];
+    private final long[] previousMin = new long[Priority.values().length];
+    private final long[] windowStart = new long[Priority.values().length];
+
+    private double limit;
+    private double ratio = 1;
+    private volatile int current;
+
+    /**
+     * {@code now} starts the first baseline window, on the clock that
+     * {@link #onSample} times are read from.
+     */
+    GradientLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, Duration window, long now) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.windowNanos = window.toNanos();
+        Arrays.fill(currentMin, Long.MAX_VALUE);
+        Arrays.fill(previousMin, Long.MAX_VALUE);
+        Arrays.fill(windowStart, now);
+        set(initialLimit);
+    }
+
+    int get() {
+        return current;
+    }
+
+    /**
+     * Feeds the latency of a completed request, with the requests in flight
+     * when it finished, itself included.
+     */
+    synchronized void onSample(Priority priority, long latencyNanos, int inFlight, long now) {
+        long latency = Math.max(1, latencyNanos);
+        long baseline = baseline(priority.ordinal(), latency, now);
+        ratio += RATIO_WEIGHT * ((double) baseline / latency - ratio);
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * ratio));
+
+        // With most of the limit unused, latency says nothing about what more
+        // concurrency would cost, so only let it shrink
+        if (gradient >= 1.0 && inFlight * 2 < limit) {
+            return;
+        }
+        double target = limit * gradient + Math.sqrt(limit);
+        set(limit + SMOOTHING * (target - limit));
+    }
+
+    synchronized void onOverload() {
+        set(limit * BACKOFF);
+    }
+
+    private long baseline(int slot, long latency, long now) {
+        if (now - windowStart[slot] >= windowNanos) {
+            previousMin[slot] = currentMin[slot];
+            currentMin[slot] = Long.MAX_VALUE;
+            windowStart[slot] = now;
+        }
+        currentMin[slot] = Math.min(currentMin[slot], latency);
+        return Math.min(currentMin[slot], previousMin[slot]);
+    }
+
+    private void set(double value) {
+        limit = Math.max(minLimit, Math.min(maxLimit, value));
+        current = (int) Math.round(limit);
+    }
+}
@@ -0,0 +1,30 @@
+package com.bonterra.eventtracker.admission;
+
+/**
+ * Admission classes, each allowed a share of the concurrency limit. Lower
+ * classes are turned away while higher ones still have room, so bulk reads
+ * can never take the places that lookups and writes need.
+ */
+enum Priority {
+
+    /** Lookups by id and writes. */
+    CRITICAL(1.0),
+    /** Search, overlap and statistics queries. */
+    NORMAL(0.8),
+    /** List pages, exports and batch imports. */
+    BULK(0.5);
+
+    private final double share;
+
+    Priority(double share) {
+        this.share = share;
+    }
+
+    /**
+     * Requests of this class that may be in flight at once, counting every
+     * class, under the given limit.
+     */
+    int allowance(int limit) {
+        return Math.max(1, (int) Math.ceil(limit * share));
+    }
+}
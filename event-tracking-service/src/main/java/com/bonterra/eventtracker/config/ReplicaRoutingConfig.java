@@ -0,0 +1,90 @@
+package com.bonterra.eventtracker.config;
+
+import com.bonterra.eventtracker.datasource.ReadYourWritesFilter;
+import com.bonterra.eventtracker.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Primary/replica data sources, enabled with
+ * {@code eventtracker.datasource.replicas.enabled=true}. Replaces the
+ * auto-configured pool; every pool, replicas included, takes its sizing from
+ * {@code spring.datasource.hikari.*}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "eventtracker.datasource.replicas", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(Environment environment,
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${spring.datasource.driverClassName:}") String driverClassName,
+            @Value("${eventtracker.datasource.replicas.urls}") List<String> replicaUrls,
+            @Value("${eventtracker.datasource.replicas.username:${spring.datasource.username:}}") String replicaUsername,
+            @Value("${eventtracker.datasource.replicas.password:${spring.datasource.password:}}") String replicaPassword,
+            @Value("${eventtracker.datasource.replicas.health-check-interval:5s}") Duration healthCheckInterval,
+            @Value("${eventtracker.datasource.replicas.max-lag:10s}") Duration maxLag,
+            @Value("${eventtracker.datasource.replicas.lag-query:}") String lagQuery) {
+        DataSource primary = pool(environment, "primary", url, username, password, driverClassName);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            String name = "replica-" + (i + 1);
+            replicas.put(name, pool(environment, name, replicaUrls.get(i).trim(), replicaUsername, replicaPassword,
+                    driverClassName));
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, healthCheckInterval, maxLag, lagQuery);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    // Take a connection per transaction rather than holding one for the whole
+    // request, so each transaction of a request can be routed on its own
+    @Bean
+    public HibernatePropertiesCustomizer connectionPerTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(
+            @Value("${eventtracker.datasource.replicas.read-your-writes-window:5s}") Duration window) {
+        return new ReadYourWritesFilter(window);
+    }
+
+    private static HikariDataSource pool(Environment environment, String name, String url, String username,
+            String password, String driverClassName) {
+        HikariDataSource dataSource = new HikariDataSource();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        if (!driverClassName.isBlank()) {
+            dataSource.setDriverClassName(driverClassName);
+        }
+        return dataSource;
+    }
+}
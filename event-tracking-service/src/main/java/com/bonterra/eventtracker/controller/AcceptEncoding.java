@@ -0,0 +1,55 @@
+package com.bonterra.eventtracker.controller;
+
+import java.util.Locale;
+
+/**
+ * Content-coding negotiation for responses the controller compresses itself.
+ */
+final class AcceptEncoding {
+
+    private AcceptEncoding() {
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip: named with a non-zero
+     * q-value, or left to a {@code *} that has one. {@code gzip;q=0} refuses it
+     * whatever {@code *} says.
+     */
+    static boolean allowsGzip(String header) {
+        if (header == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String element : header.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double q = quality(parts);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = gzip == null ? q : Math.max(gzip, q);
+            } else if (coding.equals("*")) {
+                any = q;
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return any != null && any > 0;
+    }
+
+    // A malformed weight refuses the coding rather than guessing
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 1 && Character.toLowerCase(parameter.charAt(0)) == 'q'
+                    && parameter.substring(1).trim().startsWith("=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(parameter.indexOf('=') + 1).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
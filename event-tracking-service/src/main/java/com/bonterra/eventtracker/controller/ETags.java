@@ -0,0 +1,63 @@
+package com.bonterra.eventtracker.controller;
+
+/**
+ * Entity tags derived from {@code Event.version} and the list generation.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Object version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Evaluates an If-None-Match header against a current tag. Weak tags compare
+     * equal to their strong form and {@code *} matches anything.
+     */
+    static boolean matches(String header, String etag) {
+        return matches(header, etag, true);
+    }
+
+    /**
+     * Evaluates an If-Match header against a current tag. If-Match uses strong
+     * comparison, so a weak tag never matches; {@code *} matches anything.
+     */
+    static boolean matchesStrong(String header, String etag) {
+        return matches(header, etag, false);
+    }
+
+    /**
+     * The version named by an If-Match header holding exactly one strong tag,
+     * or null when the header is {@code *}, a list, a weak tag, or not one of
+     * our tags.
+     */
+    static Long version(String header) {
+        String tag = header.trim();
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return null;
+        }
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean matches(String header, String etag, boolean weak) {
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (weak && tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
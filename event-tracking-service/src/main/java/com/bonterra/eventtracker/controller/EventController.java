@@ -1,66 +1,389 @@
 package com.bonterra.eventtracker.controller;
 
 import com.bonterra.eventtracker.entity.Event;
+import com.bonterra.eventtracker.repository.EventConstraints;
+import com.bonterra.eventtracker.repository.EventFields;
+import com.bonterra.eventtracker.repository.EventListing;
+import com.bonterra.eventtracker.repository.EventPatch;
 import com.bonterra.eventtracker.repository.EventRepository;
+import com.bonterra.eventtracker.service.BatchResult;
+import com.bonterra.eventtracker.service.EventCache;
+import com.bonterra.eventtracker.service.EventChangeStream;
+import com.bonterra.eventtracker.service.EventExporter;
+import com.bonterra.eventtracker.service.EventSearchIndex;
+import com.bonterra.eventtracker.service.EventStatistics;
+import com.bonterra.eventtracker.service.EventIngestService;
+import com.bonterra.eventtracker.service.EventIntervalIndex;
+import com.bonterra.eventtracker.service.EventRegistrations;
+import com.bonterra.eventtracker.service.GroupCommitWriter;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/events")
 public class EventController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 500;
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    static final int DEFAULT_SEARCH_SIZE = 20;
+    static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private EventIngestService eventIngestService;
+
+    @Autowired
+    private EventCache eventCache;
+
+    @Autowired
+    private EventSearchIndex eventSearchIndex;
+
+    @Autowired
+    private EventIntervalIndex eventIntervalIndex;
+
+    @Autowired
+    private EventChangeStream eventChangeStream;
+
+    @Autowired
+    private EventExporter eventExporter;
+
+    @Autowired
+    private EventStatistics eventStatistics;
+
+    @Autowired
+    private EventRegistrations eventRegistrations;
+
+    // Present only when eventtracker.ingest.group-commit.enabled is set
+    @Autowired(required = false)
+    private GroupCommitWriter groupCommitWriter;
+
+    @Value("${eventtracker.ingest.group-commit.request-timeout:30s}")
+    private Duration groupCommitTimeout;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
     @GetMapping
-    public ResponseEntity<List<Event>> getAllEvents() {
-        List<Event> events = eventRepository.findAll();
-        return ResponseEntity.ok(events);
+    public ResponseEntity<?> getAllEvents(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ResponseEntity<ErrorResponse> invalid = validatePage(cursor, limit);
+        if (invalid == null) {
+            invalid = validateFields(fields);
+        }
+        if (invalid != null) {
+            return invalid;
+        }
+        Set<String> fieldset = EventFields.parse(fields);
+
+        // Taken before loading, so the tag is never newer than the page it describes.
+        // Each fieldset is a different representation and needs its own tag.
+        String etag = ETags.of(eventCache.listVersion() + "-" + Integer.toHexString(fieldset.hashCode()));
+        if (ifNoneMatch != null && ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        // Fetch one extra row so we know whether another page exists without a count query
+        List<Map<String, Object>> events = eventCache.page(cursor, limit + 1, fieldset,
+                () -> findPage(EventListing.ALL, fieldset, null, cursor, limit + 1));
+        return page(events, limit, EventListing.ALL, fieldset, etag);
+    }
+
+    @GetMapping("/active")
+    public ResponseEntity<?> getActiveEvents(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields) {
+        ResponseEntity<ErrorResponse> invalid = validatePage(cursor, limit);
+        if (invalid == null) {
+            invalid = validateFields(fields);
+        }
+        if (invalid != null) {
+            return invalid;
+        }
+
+        Set<String> fieldset = EventFields.parse(fields);
+        List<Map<String, Object>> events = findPage(EventListing.ACTIVE, fieldset, LocalDateTime.now(), cursor,
+                limit + 1);
+        return page(events, limit, EventListing.ACTIVE, fieldset, null);
+    }
+
+    @GetMapping("/archived")
+    public ResponseEntity<?> getArchivedEvents(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields) {
+        ResponseEntity<ErrorResponse> invalid = validatePage(cursor, limit);
+        if (invalid == null) {
+            invalid = validateFields(fields);
+        }
+        if (invalid != null) {
+            return invalid;
+        }
+
+        Set<String> fieldset = EventFields.parse(fields);
+        List<Map<String, Object>> events = findPage(EventListing.ARCHIVED, fieldset, LocalDateTime.now(), cursor,
+                limit + 1);
+        return page(events, limit, EventListing.ARCHIVED, fieldset, null);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchEvents(@RequestParam String q,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "" + DEFAULT_SEARCH_SIZE) int limit,
+            @RequestParam(required = false) String fields) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("q must not be blank"));
+        }
+        if (offset < 0 || limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("offset must be positive and limit between 1 and " + MAX_PAGE_SIZE));
+        }
+        ResponseEntity<ErrorResponse> invalid = validateFields(fields);
+        if (invalid != null) {
+            return invalid;
+        }
+
+        // Ranking happens entirely in the index; only the requested page is loaded
+        List<EventSearchIndex.Hit> hits = eventSearchIndex.search(q);
+        List<UUID> ids = hits.stream().skip(offset).limit(limit).map(EventSearchIndex.Hit::id).toList();
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(hits.size()))
+                .body(eventRepository.findFieldsById(EventFields.parse(fields), ids));
+    }
+
+    @GetMapping("/overlapping")
+    public ResponseEntity<?> getOverlappingEvents(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String location,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields) {
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("from must be before to"));
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        ResponseEntity<ErrorResponse> invalid = validateFields(fields);
+        if (invalid != null) {
+            return invalid;
+        }
+
+        List<UUID> ids = eventIntervalIndex.overlapping(from, to, location);
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(ids.size()))
+                .body(eventRepository.findFieldsById(EventFields.parse(fields),
+                        ids.subList(0, Math.min(limit, ids.size()))));
+    }
+
+    /**
+     * The whole table as NDJSON or CSV, written to the response as it is read.
+     * Compressed with gzip when the client accepts it.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEvents(@RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        EventExporter.Format exportFormat;
+        try {
+            exportFormat = EventExporter.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean gzip = AcceptEncoding.allowsGzip(acceptEncoding);
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                eventExporter.export(exportFormat, compressed);
+                compressed.finish();
+            } else {
+                eventExporter.export(exportFormat, out);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("events." + exportFormat.extension()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Server-Sent Events of created/updated/deleted deltas, each carrying its
+     * sequence number as the event id so {@code Last-Event-ID} resumes the stream.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        Long resumeAfter = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                resumeAfter = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                // Not an id this stream issued; -1 precedes every buffered delta,
+                // so the client is told to reset
+                resumeAfter = -1L;
+            }
+        }
+        SseEmitter emitter = eventChangeStream.subscribe(resumeAfter);
+        return ResponseEntity.ok().header(HttpHeaders.CACHE_CONTROL, "no-store").body(emitter);
+    }
+
+    // Served from incrementally maintained aggregates; costs O(buckets), not O(rows)
+    @GetMapping("/stats")
+    public ResponseEntity<EventStatistics.Snapshot> getStatistics() {
+        return ResponseEntity.ok(eventStatistics.snapshot());
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(eventCache.stats());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Event> getEventById(@PathVariable UUID id) {
-        Optional<Event> event = eventRepository.findById(id);
-        return event.map(ResponseEntity::ok)
+    public ResponseEntity<Event> getEventById(@PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Revalidation only needs the version, never the entity itself
+        if (ifNoneMatch != null) {
+            Optional<Long> version = eventCache.findVersionById(id);
+            if (version.isPresent() && ETags.matches(ifNoneMatch, ETags.of(version.get()))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(version.get())).build();
+            }
+        }
+
+        Optional<Event> event = eventCache.findById(id);
+        return event.map(e -> ResponseEntity.ok().eTag(ETags.of(e.getVersion())).body(e))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PostMapping
-    public ResponseEntity<?> createEvent(@RequestBody Event event) {
-        // Check if event with same name already exists
-        if (eventRepository.findByNameIgnoreCase(event.getName()).isPresent()) {
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(new ErrorResponse("An event with this name already exists"));
-        }
-
+    public ResponseEntity<?> createEvent(@RequestBody Event event,
+            @RequestParam(defaultValue = "false") boolean rejectOverlap) {
         // Validate that start date is before end date
         if (event.getStartDate() != null && event.getEndDate() != null &&
                 event.getStartDate().isAfter(event.getEndDate())) {
             return ResponseEntity.badRequest().build();
         }
-        Event savedEvent = eventRepository.save(event);
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedEvent);
+        if (rejectOverlap) {
+            // Held until the insert has committed, so two bookings for the same
+            // slot cannot both pass the check
+            return eventIntervalIndex.book(event.getLocation(), () -> eventIntervalIndex.hasConflict(
+                    event.getLocation(), event.getStartDate(), event.getEndDate(), null)
+                    ? locationConflict() : create(event));
+        }
+        return create(event);
+    }
+
+    private ResponseEntity<?> create(Event event) {
+        if (groupCommitWriter != null) {
+            return createInGroupCommit(event);
+        }
+
+        // Name uniqueness is enforced by the normalized-name index, so the insert
+        // itself is the duplicate check
+        try {
+            Event savedEvent = eventRepository.saveAndFlush(event);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(savedEvent.getVersion())).body(savedEvent);
+        } catch (DataIntegrityViolationException e) {
+            if (EventConstraints.isDuplicateName(e)) {
+                return duplicateName();
+            }
+            throw e;
+        }
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchResult> createEvents(@RequestBody List<Event> events) {
+        EventIngestService.Ingestion ingestion = eventIngestService.begin();
+        events.forEach(ingestion::add);
+        return ResponseEntity.ok(ingestion.finish());
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BatchResult> createEventsFromNdjson(HttpServletRequest request) throws IOException {
+        // Parse line by line so a large upload is written chunk by chunk rather
+        // than being materialized as one list
+        ObjectReader reader = jsonMapper.readerFor(Event.class);
+        EventIngestService.Ingestion ingestion = eventIngestService.begin();
+        try (BufferedReader lines = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    ingestion.add(reader.readValue(line));
+                } catch (JacksonException e) {
+                    ingestion.reject("Malformed JSON");
+                }
+            }
+        }
+        return ResponseEntity.ok(ingestion.finish());
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateEvent(@PathVariable UUID id, @RequestBody Event eventDetails) {
+    public ResponseEntity<?> updateEvent(@PathVariable UUID id, @RequestBody Event eventDetails,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestParam(defaultValue = "false") boolean rejectOverlap) {
+        if (rejectOverlap) {
+            return eventIntervalIndex.book(eventDetails.getLocation(), () -> eventIntervalIndex.hasConflict(
+                    eventDetails.getLocation(), eventDetails.getStartDate(), eventDetails.getEndDate(), id)
+                    ? locationConflict() : update(id, eventDetails, ifMatch));
+        }
+        return update(id, eventDetails, ifMatch);
+    }
+
+    private ResponseEntity<?> update(UUID id, Event eventDetails, String ifMatch) {
         Optional<Event> eventOptional = eventRepository.findById(id);
         if (eventOptional.isPresent()) {
             Event event = eventOptional.get();
-
-            // Check if trying to update to a name that already exists (and it's a different
-            // event)
-            if (!event.getName().equalsIgnoreCase(eventDetails.getName())) {
-                if (eventRepository.findByNameIgnoreCase(eventDetails.getName()).isPresent()) {
-                    return ResponseEntity.status(HttpStatus.CONFLICT)
-                            .body(new ErrorResponse("An event with this name already exists"));
-                }
+            if (ifMatch != null && !ETags.matchesStrong(ifMatch, ETags.of(event.getVersion()))) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
             }
 
             event.setName(eventDetails.getName());
@@ -72,18 +395,278 @@ public class EventController {
             event.setMaxAttendees(eventDetails.getMaxAttendees());
             event.setLocationNotes(eventDetails.getLocationNotes());
             event.setPreparationNotes(eventDetails.getPreparationNotes());
-            Event updatedEvent = eventRepository.save(event);
-            return ResponseEntity.ok(updatedEvent);
+
+            // A rename onto another event's name fails on the normalized-name index,
+            // and a concurrent write since the load fails the version check
+            try {
+                Event updatedEvent = eventRepository.saveAndFlush(event);
+                return ResponseEntity.ok().eTag(ETags.of(updatedEvent.getVersion())).body(updatedEvent);
+            } catch (DataIntegrityViolationException e) {
+                if (EventConstraints.isDuplicateName(e)) {
+                    return duplicateName();
+                }
+                throw e;
+            } catch (OptimisticLockingFailureException e) {
+                return concurrentModification(ifMatch);
+            }
         }
         return ResponseEntity.notFound().build();
     }
 
+    /**
+     * JSON Merge Patch (RFC 7396): only the properties in the body are written,
+     * in one UPDATE that also returns the new row.
+     */
+    @PatchMapping(value = "/{id}", consumes = { MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<?> patchEvent(@PathVariable UUID id, @RequestBody JsonNode body,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!body.isObject()) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("A merge patch must be a JSON object"));
+        }
+        EventPatch patch = new EventPatch();
+        for (Map.Entry<String, JsonNode> property : body.properties()) {
+            String name = property.getKey();
+            Class<?> type = EventPatch.typeOf(name);
+            if (type == null) {
+                return ResponseEntity.badRequest().body(new ErrorResponse("Cannot patch " + name));
+            }
+            if (property.getValue().isNull()) {
+                if (!EventPatch.isNullable(name)) {
+                    return ResponseEntity.badRequest().body(new ErrorResponse(name + " cannot be removed"));
+                }
+                patch.set(name, null);
+                continue;
+            }
+            try {
+                patch.set(name, jsonMapper.treeToValue(property.getValue(), type));
+            } catch (JacksonException e) {
+                return ResponseEntity.badRequest().body(new ErrorResponse("Invalid value for " + name));
+            }
+        }
+        if (patch.contains("startDate") && patch.contains("endDate")
+                && ((LocalDateTime) patch.get("startDate")).isAfter((LocalDateTime) patch.get("endDate"))) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (patch.isEmpty()) {
+            return getEventById(id, null);
+        }
+
+        Long expectedVersion = null;
+        if (ifMatch != null) {
+            expectedVersion = ETags.version(ifMatch);
+            if (expectedVersion == null) {
+                // * or a list of tags: settle it against the current version
+                Optional<Long> current = eventRepository.findVersionById(id);
+                if (current.isEmpty()) {
+                    return ResponseEntity.notFound().build();
+                }
+                if (!ETags.matchesStrong(ifMatch, ETags.of(current.get()))) {
+                    return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+                }
+                expectedVersion = current.get();
+            }
+        }
+
+        // The normalized-name index only sees this write when name is patched
+        Optional<Event> patched;
+        try {
+            patched = eventRepository.patch(id, patch, expectedVersion);
+        } catch (DataIntegrityViolationException e) {
+            if (EventConstraints.isDuplicateName(e)) {
+                return duplicateName();
+            }
+            throw e;
+        }
+        if (patched.isPresent()) {
+            return ResponseEntity.ok().eTag(ETags.of(patched.get().getVersion())).body(patched.get());
+        }
+
+        // Nothing matched; only now pay for a lookup to say why
+        Optional<Long> version = eventRepository.findVersionById(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (expectedVersion != null && !expectedVersion.equals(version.get())) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        return ResponseEntity.badRequest().body(new ErrorResponse("Start date must be before end date"));
+    }
+
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteEvent(@PathVariable UUID id) {
-        if (eventRepository.existsById(id)) {
-            eventRepository.deleteById(id);
+    public ResponseEntity<?> deleteEvent(@PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Optional<Event> eventOptional = eventRepository.findById(id);
+        if (eventOptional.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Event event = eventOptional.get();
+        if (ifMatch != null && !ETags.matchesStrong(ifMatch, ETags.of(event.getVersion()))) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+
+        // The delete is versioned, so it fails if the event changed after the load
+        try {
+            eventRepository.delete(event);
             return ResponseEntity.noContent().build();
+        } catch (OptimisticLockingFailureException e) {
+            return concurrentModification(ifMatch);
         }
-        return ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/{id}/registrations")
+    public ResponseEntity<EventRegistrations.Status> getRegistrations(@PathVariable UUID id) {
+        return eventRegistrations.status(id).map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // Admitted in memory; the count reaches the row with the next flush
+    @PostMapping("/{id}/registrations")
+    public ResponseEntity<?> register(@PathVariable UUID id) {
+        Optional<EventRegistrations.Outcome> outcome = eventRegistrations.register(id);
+        if (outcome.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!outcome.get().accepted()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse("Event is full"));
+        }
+        return ResponseEntity.ok(outcome.get().status());
+    }
+
+    @DeleteMapping("/{id}/registrations")
+    public ResponseEntity<?> cancelRegistration(@PathVariable UUID id) {
+        Optional<EventRegistrations.Outcome> outcome = eventRegistrations.cancel(id);
+        if (outcome.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!outcome.get().accepted()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ErrorResponse("Event has no registrations to cancel"));
+        }
+        return ResponseEntity.ok(outcome.get().status());
+    }
+
+    /**
+     * Hands the create to the group-commit writer and answers once the batch it
+     * joined has committed.
+     */
+    private ResponseEntity<?> createInGroupCommit(Event event) {
+        BatchResult.ItemResult result;
+        try {
+            result = groupCommitWriter.submit(event)
+                    .orTimeout(groupCommitTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .join();
+        } catch (CompletionException e) {
+            // On a timeout the batch may still commit later; a retry then sees
+            // the name as taken
+            if (e.getCause() instanceof RejectedExecutionException || e.getCause() instanceof TimeoutException) {
+                return serviceBusy();
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return switch (result.status()) {
+            case CREATED -> ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(event.getVersion())).body(event);
+            case DUPLICATE -> duplicateName();
+            case INVALID -> ResponseEntity.badRequest().body(new ErrorResponse(result.message()));
+        };
+    }
+
+    // Raised when no pooled connection frees up within the acquisition timeout;
+    // shed the request quickly instead of holding it
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ErrorResponse> handleConnectionUnavailable(CannotCreateTransactionException e) {
+        return serviceBusy();
+    }
+
+    private static ResponseEntity<ErrorResponse> serviceBusy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponse("The service is busy, please retry"));
+    }
+
+    private static ResponseEntity<ErrorResponse> duplicateName() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse("An event with this name already exists"));
+    }
+
+    private static ResponseEntity<ErrorResponse> locationConflict() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse("Another event is booked at this location during that time"));
+    }
+
+    /**
+     * Selects one keyset page of a listing with only the requested columns.
+     */
+    private List<Map<String, Object>> findPage(EventListing listing, Set<String> fields, LocalDateTime now,
+            String cursor, int limit) {
+        if (isFirstPage(cursor)) {
+            return eventRepository.findFields(fields, listing, now, null, null, limit);
+        }
+        EventCursor after = EventCursor.decode(cursor);
+        return eventRepository.findFields(fields, listing, now, after.date(), after.id(), limit);
+    }
+
+    private static ResponseEntity<?> concurrentModification(String ifMatch) {
+        if (ifMatch != null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse("The event was modified concurrently"));
+    }
+
+    private static boolean isFirstPage(String cursor) {
+        return cursor == null || cursor.isBlank();
+    }
+
+    private static ResponseEntity<ErrorResponse> validatePage(String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        if (!isFirstPage(cursor)) {
+            try {
+                EventCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(new ErrorResponse("Invalid cursor"));
+            }
+        }
+        return null;
+    }
+
+    private static ResponseEntity<ErrorResponse> validateFields(String fields) {
+        try {
+            EventFields.parse(fields);
+            return null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Trims a result fetched with {@code limit + 1} rows down to the page and, when
+     * more rows remain, advertises the cursor for the next page. The sort key is
+     * selected for the cursor only, so it leaves the rows unless it was asked for.
+     */
+    private static ResponseEntity<List<Map<String, Object>>> page(List<Map<String, Object>> events, int limit,
+            EventListing listing, Set<String> fields, String etag) {
+        List<Map<String, Object>> page = events.size() <= limit ? events : events.subList(0, limit);
+        EventCursor next = null;
+        if (events.size() > limit) {
+            Map<String, Object> last = page.get(limit - 1);
+            next = new EventCursor((LocalDateTime) last.get(listing.sortProperty()), (UUID) last.get("id"));
+        }
+        if (!fields.contains(listing.sortProperty())) {
+            // Copies, since the rows may be shared with the page cache
+            page = page.stream().map(row -> {
+                Map<String, Object> requested = new LinkedHashMap<>(row);
+                requested.remove(listing.sortProperty());
+                return requested;
+            }).toList();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+        if (next != null) {
+            response.header(NEXT_CURSOR_HEADER, next.encode());
+        }
+        return response.body(page);
     }
 }
@@ -0,0 +1,69 @@
+package com.bonterra.eventtracker.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Keeps a client on the primary for a short window after it writes. Mutating
+ * requests run entirely on the primary and set a cookie that lasts
+ * {@code window}; reads carrying the cookie are pinned too, so a client sees
+ * its own changes however far the replicas are behind.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "eventtracker-primary";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write) {
+            // Set before the body is written, while headers can still change
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE_NAME, "1")
+                    .path("/")
+                    .maxAge(Duration.ofSeconds(Math.max(1, (window.toMillis() + 999) / 1000)))
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build()
+                    .toString());
+        }
+
+        if (write || hasCookie(request)) {
+            try (ReplicaRoutingDataSource.Pin pin = ReplicaRoutingDataSource.pinToPrimary()) {
+                chain.doFilter(request, response);
+            }
+        } else {
+            chain.doFilter(request, response);
+        }
+    }
+
+    private static boolean hasCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE_NAME.equals(cookie.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
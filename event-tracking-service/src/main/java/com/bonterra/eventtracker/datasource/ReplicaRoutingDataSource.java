@@ -0,0 +1,186 @@
+package com.bonterra.eventtracker.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes read-only transactions to the replicas in turn and everything else to
+ * the primary. Replicas that fail their health check, or lag further behind
+ * than {@code maxLag}, are skipped until they recover; with none left, reads
+ * go to the primary too.
+ * <p>
+ * The read-only flag is only known once the transaction has started, so this
+ * must sit behind a {@code LazyConnectionDataSourceProxy}, which fetches the
+ * real connection at the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder, AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    static final class Replica {
+
+        final String name;
+        final DataSource dataSource;
+        volatile boolean healthy;
+        volatile double lagSeconds = Double.NaN;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Duration healthCheckInterval;
+    private final double maxLagSeconds;
+    private final String lagQuery;
+    private final ScheduledExecutorService healthChecks;
+
+    /**
+     * @param replicas  replica data sources by name, in round-robin order
+     * @param lagQuery  optional query returning the replica's lag in seconds
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+            Duration healthCheckInterval, Duration maxLag, String lagQuery) {
+        this.primary = primary;
+        this.healthCheckInterval = healthCheckInterval;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            this.replicas.add(new Replica(name, dataSource));
+            targets.put(name, dataSource);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        this.healthChecks = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sends every transaction started on this thread to the primary until the
+     * returned pin is closed, for reads that must see the latest committed state.
+     */
+    public static Pin pinToPrimary() {
+        boolean outermost = PINNED.get() == null;
+        PINNED.set(Boolean.TRUE);
+        return () -> {
+            if (outermost) {
+                PINNED.remove();
+            }
+        };
+    }
+
+    public interface Pin extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        // Route to replicas only once they have been seen to be healthy
+        checkReplicas();
+        long interval = healthCheckInterval.toMillis();
+        healthChecks.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (PINNED.get() != null || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica.name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Probes every replica once and updates its health and lag.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                double lag = 0;
+                if (lagQuery != null) {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.setQueryTimeout(5);
+                        try (ResultSet result = statement.executeQuery(lagQuery)) {
+                            lag = result.next() ? result.getDouble(1) : 0;
+                        }
+                    }
+                } else if (!connection.isValid(5)) {
+                    lag = Double.POSITIVE_INFINITY;
+                }
+                replica.lagSeconds = lag;
+                replica.healthy = lag <= maxLagSeconds;
+            } catch (SQLException | RuntimeException e) {
+                replica.lagSeconds = Double.NaN;
+                replica.healthy = false;
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("eventtracker.datasource.replica.up", replica, r -> r.healthy ? 1 : 0)
+                    .description("Whether the replica is taking read-only transactions")
+                    .tag("replica", replica.name)
+                    .register(registry);
+            Gauge.builder("eventtracker.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Replication lag reported by the last health check")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name)
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        healthChecks.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
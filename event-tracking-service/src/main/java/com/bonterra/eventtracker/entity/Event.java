@@ -1,20 +1,40 @@
 package com.bonterra.eventtracker.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.UUID;
 
 @Entity
-@Table(name = "events")
+@EntityListeners(EventChangeListener.class)
+@Table(name = "events", uniqueConstraints = {
+        @UniqueConstraint(name = Event.NORMALIZED_NAME_CONSTRAINT, columnNames = "normalizedName")
+}, indexes = {
+        @Index(name = "idx_events_start_date_id", columnList = "startDate, id"),
+        @Index(name = "idx_events_end_date_id", columnList = "endDate, id")
+})
 public class Event {
 
+    public static final String NORMALIZED_NAME_CONSTRAINT = "uk_events_normalized_name";
+
+    // Version 7 ids are time-ordered, so inserts append to the right edge of
+    // the primary-key index; rows created with random version 4 ids still load
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private UUID id;
 
     @Column(nullable = false)
     private String name;
 
+    // Case-folded copy of name so uniqueness is enforced by an index probe
+    // instead of an upper(name) scan
+    @JsonIgnore
+    @Column(nullable = false)
+    private String normalizedName;
+
     @Column(nullable = false)
     private String description;
 
@@ -33,12 +53,23 @@ public class Event {
     @Column
     private Integer maxAttendees;
 
+    // Owned by EventRegistrations, which admits registrations in memory and
+    // flushes the count in batches; entity writes never touch it
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private int registeredAttendees;
+
     @Column
     private String locationNotes;
 
     @Column
     private String preparationNotes;
 
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     public Event() {
     }
 
@@ -46,7 +77,7 @@ public class Event {
         if (startDate.isAfter(endDate)) {
             throw new IllegalArgumentException("Start date must be before end date");
         }
-        this.name = name;
+        setName(name);
         this.description = description;
         this.startDate = startDate;
         this.endDate = endDate;
@@ -72,6 +103,15 @@ public class Event {
 
     public void setName(String name) {
         this.name = name;
+        this.normalizedName = normalizeName(name);
+    }
+
+    public String getNormalizedName() {
+        return normalizedName;
+    }
+
+    public static String normalizeName(String name) {
+        return name == null ? null : name.toLowerCase(Locale.ROOT);
     }
 
     public String getDescription() {
@@ -122,6 +162,14 @@ public class Event {
         this.maxAttendees = maxAttendees;
     }
 
+    public int getRegisteredAttendees() {
+        return registeredAttendees;
+    }
+
+    public void setRegisteredAttendees(int registeredAttendees) {
+        this.registeredAttendees = registeredAttendees;
+    }
+
     public String getLocationNotes() {
         return locationNotes;
     }
@@ -138,6 +186,14 @@ public class Event {
         this.preparationNotes = preparationNotes;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Event{" +
@@ -0,0 +1,16 @@
+package com.bonterra.eventtracker.entity;
+
+import java.util.UUID;
+
+/**
+ * Application event describing a committed write to an {@link Event}. For
+ * deletions {@code event} carries the last known state of the removed row.
+ */
+public record EventChange(Type type, UUID id, Event event) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
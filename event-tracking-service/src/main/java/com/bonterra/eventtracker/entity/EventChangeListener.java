@@ -0,0 +1,33 @@
+package com.bonterra.eventtracker.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Publishes an {@link EventChange} for every insert, update and delete flushed
+ * through JPA. Consumers listen with {@code @TransactionalEventListener} so they
+ * only observe writes that actually committed.
+ */
+public class EventChangeListener {
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @PostPersist
+    void created(Event event) {
+        publisher.publishEvent(new EventChange(EventChange.Type.CREATED, event.getId(), event));
+    }
+
+    @PostUpdate
+    void updated(Event event) {
+        publisher.publishEvent(new EventChange(EventChange.Type.UPDATED, event.getId(), event));
+    }
+
+    @PostRemove
+    void deleted(Event event) {
+        publisher.publishEvent(new EventChange(EventChange.Type.DELETED, event.getId(), event));
+    }
+}
@@ -0,0 +1,58 @@
+package com.bonterra.eventtracker.entity;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDs (RFC 9562 version 7): a 48-bit millisecond timestamp,
+ * a 12-bit counter and 62 random bits. The counter makes ids strictly
+ * increasing across all threads, even within one millisecond; if it runs out
+ * the timestamp is advanced by a millisecond rather than reused.
+ */
+public final class UuidV7 {
+
+    private static final UuidV7 SHARED = new UuidV7(Clock.systemUTC());
+
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+
+    // Timestamp in the high bits, counter in the low 12
+    private final AtomicLong state = new AtomicLong();
+
+    UuidV7(Clock clock) {
+        this.clock = clock;
+    }
+
+    public static UUID next() {
+        return SHARED.generate();
+    }
+
+    UUID generate() {
+        long now = clock.millis();
+        long previous;
+        long next;
+        do {
+            previous = state.get();
+            // A new millisecond starts the counter at a random point in its lower
+            // half, leaving room to count up and keeping ids hard to guess
+            long fresh = now << 12 | random.nextInt(1 << 11);
+            next = fresh >>> 12 > previous >>> 12 ? fresh : previous + 1;
+        } while (!state.compareAndSet(previous, next));
+
+        long msb = (next >>> 12) << 16 | 0x7000L | (next & 0xFFFL);
+        long lsb = random.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * The creation time of a version 7 id, in epoch milliseconds.
+     */
+    public static long timestamp(UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("Not a version 7 UUID: " + uuid);
+        }
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
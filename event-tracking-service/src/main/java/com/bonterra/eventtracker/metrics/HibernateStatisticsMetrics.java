@@ -0,0 +1,52 @@
+package com.bonterra.eventtracker.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes Hibernate session statistics (statements, entity loads, flushes,
+ * connections obtained) as counters. {@link QueryCountConfig} turns the
+ * statistics on. Connection acquire time comes from Hikari's own
+ * {@code hikaricp.connections.acquire} timer.
+ */
+@Component
+public class HibernateStatisticsMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "hibernate.statements.prepared", "JDBC statements prepared",
+                Statistics::getPrepareStatementCount);
+        counter(registry, "hibernate.entities.loaded", "Entities loaded from the database",
+                Statistics::getEntityLoadCount);
+        counter(registry, "hibernate.entities.inserted", "Entities inserted",
+                Statistics::getEntityInsertCount);
+        counter(registry, "hibernate.entities.updated", "Entities updated",
+                Statistics::getEntityUpdateCount);
+        counter(registry, "hibernate.flushes", "Session flushes",
+                Statistics::getFlushCount);
+        counter(registry, "hibernate.connections.obtained", "JDBC connections obtained by sessions",
+                Statistics::getConnectCount);
+        counter(registry, "hibernate.transactions.committed", "Transactions committed",
+                Statistics::getSuccessfulTransactionCount);
+    }
+
+    private void counter(MeterRegistry registry, String name, String description,
+            ToDoubleFunction<Statistics> value) {
+        FunctionCounter.builder(name, statistics, value)
+                .description(description)
+                .register(registry);
+    }
+}
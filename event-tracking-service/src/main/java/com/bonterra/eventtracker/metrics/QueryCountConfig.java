@@ -0,0 +1,23 @@
+package com.bonterra.eventtracker.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers {@link QueryCountInspector} and turns on Hibernate statistics in
+ * code, so the query counts and {@link HibernateStatisticsMetrics} never depend
+ * on which properties file is on the classpath.
+ */
+@Configuration
+public class QueryCountConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountHibernateProperties() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, QueryCountInspector.class.getName());
+            properties.put(AvailableSettings.GENERATE_STATISTICS, "true");
+        };
+    }
+}
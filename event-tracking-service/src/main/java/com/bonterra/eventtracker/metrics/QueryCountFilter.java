@@ -0,0 +1,107 @@
+package com.bonterra.eventtracker.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Records how many SQL statements each request issued, as a distribution per
+ * endpoint pattern. In debug mode the count is also returned in the
+ * {@value #QUERY_COUNT_HEADER} response header.
+ */
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean exposeHeader;
+
+    public QueryCountFilter(MeterRegistry meterRegistry,
+            @Value("${eventtracker.metrics.query-count-header:false}") boolean exposeHeader) {
+        this.meterRegistry = meterRegistry;
+        this.exposeHeader = exposeHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryCounter.reset();
+        HttpServletResponse target = exposeHeader ? new HeaderOnCommitResponse(response) : response;
+        try {
+            chain.doFilter(request, target);
+        } finally {
+            int statements = QueryCounter.get();
+            if (exposeHeader && !response.isCommitted()) {
+                response.setHeader(QUERY_COUNT_HEADER, String.valueOf(statements));
+            }
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("http.server.requests.sql.statements")
+                    .description("SQL statements issued per request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry)
+                    .record(statements);
+        }
+    }
+
+    /**
+     * Adds the statement count just before the body starts, which for a
+     * controller response is after all of its queries have run.
+     */
+    private static final class HeaderOnCommitResponse extends HttpServletResponseWrapper {
+
+        HeaderOnCommitResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        private void addCount() {
+            if (!isCommitted()) {
+                setHeader(QUERY_COUNT_HEADER, String.valueOf(QueryCounter.get()));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addCount();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addCount();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addCount();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int status, String message) throws IOException {
+            addCount();
+            super.sendError(status, message);
+        }
+
+        @Override
+        public void sendError(int status) throws IOException {
+            addCount();
+            super.sendError(status);
+        }
+    }
+}
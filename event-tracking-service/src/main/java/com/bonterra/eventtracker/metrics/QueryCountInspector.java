@@ -0,0 +1,16 @@
+package com.bonterra.eventtracker.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every statement Hibernate prepares. Registered by
+ * {@link QueryCountConfig}.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.increment();
+        return sql;
+    }
+}
@@ -0,0 +1,26 @@
+package com.bonterra.eventtracker.metrics;
+
+/**
+ * Per-thread count of SQL statements prepared by Hibernate. Request handling
+ * and its repository calls share a thread, so resetting at the start of a
+ * request yields that request's statement count.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    private QueryCounter() {
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static int get() {
+        return COUNT.get()[0];
+    }
+
+    static void increment() {
+        COUNT.get()[0]++;
+    }
+}
@@ -0,0 +1,34 @@
+package com.bonterra.eventtracker.repository;
+
+import com.bonterra.eventtracker.entity.Event;
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.util.Locale;
+
+/**
+ * Recognizes database constraint violations raised by writes to the events table.
+ */
+public final class EventConstraints {
+
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+
+    private EventConstraints() {
+    }
+
+    /**
+     * Returns true when the failure was caused by the unique index on the
+     * normalized event name, i.e. another event already uses the name.
+     */
+    public static boolean isDuplicateName(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String constraint = violation.getConstraintName();
+                if (constraint == null) {
+                    return UNIQUE_VIOLATION_SQL_STATE.equals(violation.getSQLState());
+                }
+                return constraint.toLowerCase(Locale.ROOT).contains(Event.NORMALIZED_NAME_CONSTRAINT);
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+package com.bonterra.eventtracker.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sparse fieldsets for list responses. A fieldset always contains {@code id}
+ * and is kept in declaration order, so equal requests produce equal sets.
+ */
+public final class EventFields {
+
+    public static final List<String> ALL = List.of("id", "name", "description", "startDate", "endDate",
+            "location", "minAttendees", "maxAttendees", "registeredAttendees", "locationNotes", "preparationNotes",
+            "version");
+
+    /** What list endpoints return by default: enough to render a row, none of the free text. */
+    public static final Set<String> SUMMARY = Collections.unmodifiableSet(
+            new LinkedHashSet<>(List.of("id", "name", "startDate", "endDate", "location", "version")));
+
+    private EventFields() {
+    }
+
+    /**
+     * Parses a comma-separated {@code fields} parameter. Blank means
+     * {@link #SUMMARY} and {@code *} means every field.
+     *
+     * @throws IllegalArgumentException if a name is not an event field
+     */
+    public static Set<String> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return SUMMARY;
+        }
+        if (fields.trim().equals("*")) {
+            return Collections.unmodifiableSet(new LinkedHashSet<>(ALL));
+        }
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!ALL.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            requested.add(name);
+        }
+        List<String> ordered = new ArrayList<>(ALL);
+        ordered.removeIf(name -> !name.equals("id") && !requested.contains(name));
+        return Collections.unmodifiableSet(new LinkedHashSet<>(ordered));
+    }
+}
@@ -0,0 +1,30 @@
+package com.bonterra.eventtracker.repository;
+
+/**
+ * The keyset-paged event lists and the (sort key, id) order each one walks.
+ */
+public enum EventListing {
+
+    /** Every event by start date. */
+    ALL("startDate", false),
+    /** Events that have not ended, by start date. */
+    ACTIVE("startDate", false),
+    /** Ended events, most recently ended first. */
+    ARCHIVED("endDate", true);
+
+    private final String sortProperty;
+    private final boolean descending;
+
+    EventListing(String sortProperty, boolean descending) {
+        this.sortProperty = sortProperty;
+        this.descending = descending;
+    }
+
+    public String sortProperty() {
+        return sortProperty;
+    }
+
+    public boolean descending() {
+        return descending;
+    }
+}
@@ -0,0 +1,76 @@
+package com.bonterra.eventtracker.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The properties of a JSON Merge Patch against an event. Only properties that
+ * were present are written; an explicit null clears a nullable column.
+ */
+public final class EventPatch {
+
+    record Field(String column, Class<?> type, boolean nullable) {
+    }
+
+    static final Map<String, Field> FIELDS;
+
+    static {
+        Map<String, Field> fields = new LinkedHashMap<>();
+        fields.put("name", new Field("name", String.class, false));
+        fields.put("description", new Field("description", String.class, false));
+        fields.put("startDate", new Field("start_date", LocalDateTime.class, false));
+        fields.put("endDate", new Field("end_date", LocalDateTime.class, false));
+        fields.put("location", new Field("location", String.class, false));
+        fields.put("minAttendees", new Field("min_attendees", Integer.class, true));
+        fields.put("maxAttendees", new Field("max_attendees", Integer.class, true));
+        fields.put("locationNotes", new Field("location_notes", String.class, true));
+        fields.put("preparationNotes", new Field("preparation_notes", String.class, true));
+        FIELDS = Collections.unmodifiableMap(fields);
+    }
+
+    private final Map<String, Object> values = new LinkedHashMap<>();
+
+    /**
+     * Java type of a patchable property, or null when the property does not
+     * exist or is read-only.
+     */
+    public static Class<?> typeOf(String property) {
+        Field field = FIELDS.get(property);
+        return field == null ? null : field.type();
+    }
+
+    public static boolean isNullable(String property) {
+        Field field = FIELDS.get(property);
+        return field != null && field.nullable();
+    }
+
+    public EventPatch set(String property, Object value) {
+        Field field = FIELDS.get(property);
+        if (field == null) {
+            throw new IllegalArgumentException("Not a patchable property: " + property);
+        }
+        if (value == null && !field.nullable()) {
+            throw new IllegalArgumentException(property + " cannot be null");
+        }
+        values.put(property, value);
+        return this;
+    }
+
+    public boolean contains(String property) {
+        return values.containsKey(property);
+    }
+
+    public Object get(String property) {
+        return values.get(property);
+    }
+
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    Map<String, Object> values() {
+        return Collections.unmodifiableMap(values);
+    }
+}
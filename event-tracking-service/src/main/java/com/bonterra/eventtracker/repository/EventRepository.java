@@ -1,13 +1,88 @@
 package com.bonterra.eventtracker.repository;
 
+import com.bonterra.eventtracker.datasource.ReplicaRoutingDataSource;
 import com.bonterra.eventtracker.entity.Event;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, UUID> {
-    Optional<Event> findByNameIgnoreCase(String name);
+public interface EventRepository extends JpaRepository<Event, UUID>, EventRepositoryCustom {
+    Optional<Event> findByNormalizedName(String normalizedName);
+
+    @Query("select e.version from Event e where e.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    // Capacity and persisted registration count, read without loading the entity
+    @Query("select e.maxAttendees, e.registeredAttendees from Event e where e.id = :id")
+    List<Object[]> findRegistrationState(@Param("id") UUID id);
+
+    @Query("select e.normalizedName from Event e where e.normalizedName in :names")
+    List<String> findExistingNormalizedNames(@Param("names") Collection<String> names);
+
+    default Optional<Event> findByNameIgnoreCase(String name) {
+        return findByNormalizedName(Event.normalizeName(name));
+    }
+
+    // Keyset pagination over the (startDate, id) index: every page is a bounded
+    // index range scan, however deep the cursor is.
+    List<Event> findAllByOrderByStartDateAscIdAsc(Limit limit);
+
+    @Query("select e from Event e where e.startDate > :startDate " +
+            "or (e.startDate = :startDate and e.id > :id) " +
+            "order by e.startDate, e.id")
+    List<Event> findPageAfter(@Param("startDate") LocalDateTime startDate, @Param("id") UUID id, Limit limit);
+
+    /**
+     * Walks the whole table in keyset pages of {@code batchSize}, so callers
+     * building in-memory structures never hold more than one page of entities.
+     * Reads the primary, since a lagging replica would leave those structures
+     * missing recent events.
+     */
+    default void forEachBatch(int batchSize, Consumer<List<Event>> action) {
+        try (ReplicaRoutingDataSource.Pin pin = ReplicaRoutingDataSource.pinToPrimary()) {
+            List<Event> batch = findAllByOrderByStartDateAscIdAsc(Limit.of(batchSize));
+            while (!batch.isEmpty()) {
+                action.accept(batch);
+                Event last = batch.get(batch.size() - 1);
+                batch = findPageAfter(last.getStartDate(), last.getId(), Limit.of(batchSize));
+            }
+        }
+    }
+
+    // Grouped recounts for EventStatistics reconciliation; a single row of
+    // count, min capacity, max capacity and archived count
+    @Query("select count(e), coalesce(sum(e.minAttendees), 0), coalesce(sum(e.maxAttendees), 0), " +
+            "coalesce(sum(case when e.endDate < :now then 1 else 0 end), 0) from Event e")
+    List<Object[]> summarizeForStatistics(@Param("now") LocalDateTime now);
+
+    @Query("select year(e.startDate), month(e.startDate), count(e) from Event e " +
+            "group by year(e.startDate), month(e.startDate)")
+    List<Object[]> countByStartMonth();
+
+    @Query("select e.location, count(e) from Event e group by e.location")
+    List<Object[]> countByLocation();
+
+    // Full-table export: rows arrive from the driver in fetch-size blocks and,
+    // being read-only, carry no dirty-checking snapshot. Must be consumed inside
+    // a transaction.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select e from Event e order by e.startDate, e.id")
+    Stream<Event> streamAllForExport();
 }
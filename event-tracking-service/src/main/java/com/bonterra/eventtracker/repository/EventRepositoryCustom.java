@@ -0,0 +1,40 @@
+package com.bonterra.eventtracker.repository;
+
+import com.bonterra.eventtracker.entity.Event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+public interface EventRepositoryCustom {
+
+    /**
+     * Applies the patch with a single UPDATE of the supplied columns and bumps
+     * the version. Returns empty when no row qualified: the event is missing,
+     * {@code expectedVersion} is stale, or the patched schedule would end
+     * before it starts.
+     */
+    Optional<Event> patch(UUID id, EventPatch patch, Long expectedVersion);
+
+    /**
+     * Writes registration counts in one batch, bumping the version of each row
+     * whose count changed and announcing it as an update. Returns the number
+     * of rows changed; ids of deleted events are ignored.
+     */
+    int updateRegisteredAttendees(Map<UUID, Integer> counts);
+
+    /**
+     * One keyset page of a listing, selecting only {@code fields} plus the
+     * listing's sort key. Pass a null {@code afterId} for the first page.
+     */
+    List<Map<String, Object>> findFields(Set<String> fields, EventListing listing, LocalDateTime now,
+            LocalDateTime afterSortKey, UUID afterId, int limit);
+
+    /**
+     * The given events, selecting only {@code fields}, in the order of {@code ids}.
+     */
+    List<Map<String, Object>> findFieldsById(Set<String> fields, List<UUID> ids);
+}
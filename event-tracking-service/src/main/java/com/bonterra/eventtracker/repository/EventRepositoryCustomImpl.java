@@ -0,0 +1,292 @@
+package com.bonterra.eventtracker.repository;
+
+import com.bonterra.eventtracker.entity.Event;
+import com.bonterra.eventtracker.entity.EventChange;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.Session;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Partial updates written as one native UPDATE, batched registration counts,
+ * and projections that select only the requested columns. On H2 and
+ * PostgreSQL the patched row comes back from the UPDATE itself; elsewhere it
+ * is re-selected.
+ */
+public class EventRepositoryCustomImpl implements EventRepositoryCustom {
+
+    private static final String COLUMNS = "id, name, normalized_name, description, start_date, end_date, "
+            + "location, min_attendees, max_attendees, location_notes, preparation_notes, version, "
+            + "registered_attendees";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    private enum Returning { FINAL_TABLE, RETURNING_CLAUSE, NONE }
+
+    private Returning returning;
+
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public Optional<Event> patch(UUID id, EventPatch patch, Long expectedVersion) {
+        StringBuilder update = new StringBuilder("update events set ");
+        for (Map.Entry<String, Object> entry : patch.values().entrySet()) {
+            String column = EventPatch.FIELDS.get(entry.getKey()).column();
+            update.append(column).append(" = :").append(entry.getKey()).append(", ");
+        }
+        if (patch.contains("name")) {
+            update.append("normalized_name = :normalizedName, ");
+        }
+        update.append("version = version + 1 where id = :id");
+        if (expectedVersion != null) {
+            update.append(" and version = :expectedVersion");
+        }
+        // Moving one end of the schedule must not put it past the other
+        if (patch.contains("startDate") && !patch.contains("endDate")) {
+            update.append(" and end_date >= :startDate");
+        } else if (patch.contains("endDate") && !patch.contains("startDate")) {
+            update.append(" and start_date <= :endDate");
+        }
+
+        Optional<Event> patched = switch (returning()) {
+            case FINAL_TABLE -> single(select("select " + COLUMNS + " from final table (" + update + ")",
+                    id, patch, expectedVersion));
+            case RETURNING_CLAUSE -> single(select(update + " returning " + COLUMNS, id, patch, expectedVersion));
+            case NONE -> {
+                NativeQuery<?> query = entityManager.createNativeQuery(update.toString()).unwrap(NativeQuery.class);
+                bind(query, id, patch, expectedVersion);
+                yield query.executeUpdate() == 0 ? Optional.empty()
+                        : single(select("select " + COLUMNS + " from events where id = :id", id, null, null));
+            }
+        };
+
+        // Native writes skip the entity listener, so announce the change here
+        patched.ifPresent(event -> publisher.publishEvent(
+                new EventChange(EventChange.Type.UPDATED, event.getId(), event)));
+        return patched;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findFields(Set<String> fields, EventListing listing, LocalDateTime now,
+            LocalDateTime afterSortKey, UUID afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Event> event = query.from(Event.class);
+        Set<String> selected = new LinkedHashSet<>(fields);
+        selected.add(listing.sortProperty());
+        query.multiselect(selections(event, selected));
+
+        Path<LocalDateTime> sortKey = event.get(listing.sortProperty());
+        Path<UUID> id = event.get("id");
+        List<Predicate> where = new ArrayList<>();
+        if (listing == EventListing.ACTIVE) {
+            where.add(cb.greaterThanOrEqualTo(event.<LocalDateTime>get("endDate"), now));
+        } else if (listing == EventListing.ARCHIVED) {
+            where.add(cb.lessThan(event.<LocalDateTime>get("endDate"), now));
+        }
+        if (afterId != null) {
+            where.add(listing.descending()
+                    ? cb.or(cb.lessThan(sortKey, afterSortKey),
+                            cb.and(cb.equal(sortKey, afterSortKey), cb.lessThan(id, afterId)))
+                    : cb.or(cb.greaterThan(sortKey, afterSortKey),
+                            cb.and(cb.equal(sortKey, afterSortKey), cb.greaterThan(id, afterId))));
+        }
+        query.where(where.toArray(new Predicate[0]));
+        query.orderBy(listing.descending()
+                ? List.of(cb.desc(sortKey), cb.desc(id))
+                : List.of(cb.asc(sortKey), cb.asc(id)));
+
+        return rows(entityManager.createQuery(query).setMaxResults(limit).getResultList(), selected);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findFieldsById(Set<String> fields, List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Event> event = query.from(Event.class);
+        query.multiselect(selections(event, fields));
+        query.where(event.get("id").in(ids));
+
+        Map<Object, Map<String, Object>> byId = new HashMap<>();
+        rows(entityManager.createQuery(query).getResultList(), fields).forEach(row -> byId.put(row.get("id"), row));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private static List<Selection<?>> selections(Root<Event> event, Set<String> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(event.get(field).alias(field));
+        }
+        return selections;
+    }
+
+    private static List<Map<String, Object>> rows(List<Tuple> tuples, Set<String> fields) {
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields) {
+                row.put(field, tuple.get(field));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public int updateRegisteredAttendees(Map<UUID, Integer> counts) {
+        if (counts.isEmpty()) {
+            return 0;
+        }
+        // One JDBC batch for the lot; rows whose count did not move keep their version
+        List<UUID> ids = new ArrayList<>(counts.keySet());
+        List<UUID> changed = new ArrayList<>();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement update = connection.prepareStatement("update events "
+                    + "set registered_attendees = ?, version = version + 1 "
+                    + "where id = ? and registered_attendees <> ?")) {
+                for (UUID id : ids) {
+                    int count = counts.get(id);
+                    update.setInt(1, count);
+                    update.setObject(2, id);
+                    update.setInt(3, count);
+                    update.addBatch();
+                }
+                int[] updated = update.executeBatch();
+                for (int i = 0; i < updated.length; i++) {
+                    if (updated[i] != 0) {
+                        changed.add(ids.get(i));
+                    }
+                }
+            }
+        });
+        if (changed.isEmpty()) {
+            return 0;
+        }
+
+        NativeQuery<Object[]> query = entityManager
+                .createNativeQuery("select " + COLUMNS + " from events where id in (:ids)")
+                .unwrap(NativeQuery.class);
+        addScalars(query).setParameterList("ids", changed);
+        for (Object[] row : query.getResultList()) {
+            Event event = toEvent(row);
+            publisher.publishEvent(new EventChange(EventChange.Type.UPDATED, event.getId(), event));
+        }
+        return changed.size();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<Object[]> select(String sql, UUID id, EventPatch patch, Long expectedVersion) {
+        NativeQuery query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        addScalars(query);
+        bind(query, id, patch, expectedVersion);
+        return query.getResultList();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static NativeQuery addScalars(NativeQuery query) {
+        return query.addScalar("id", UUID.class)
+                .addScalar("name", String.class)
+                .addScalar("normalized_name", String.class)
+                .addScalar("description", String.class)
+                .addScalar("start_date", LocalDateTime.class)
+                .addScalar("end_date", LocalDateTime.class)
+                .addScalar("location", String.class)
+                .addScalar("min_attendees", Integer.class)
+                .addScalar("max_attendees", Integer.class)
+                .addScalar("location_notes", String.class)
+                .addScalar("preparation_notes", String.class)
+                .addScalar("version", Long.class)
+                .addScalar("registered_attendees", Integer.class);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void bind(NativeQuery query, UUID id, EventPatch patch, Long expectedVersion) {
+        query.setParameter("id", id);
+        if (patch != null) {
+            for (Map.Entry<String, Object> entry : patch.values().entrySet()) {
+                // Typed binding so an explicit null still has a SQL type
+                query.setParameter(entry.getKey(), entry.getValue(),
+                        (Class) EventPatch.FIELDS.get(entry.getKey()).type());
+            }
+            if (patch.contains("name")) {
+                query.setParameter("normalizedName", Event.normalizeName((String) patch.get("name")));
+            }
+        }
+        if (expectedVersion != null) {
+            query.setParameter("expectedVersion", expectedVersion);
+        }
+    }
+
+    private static Optional<Event> single(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(toEvent(rows.get(0)));
+    }
+
+    private static Event toEvent(Object[] row) {
+        Event event = new Event();
+        event.setId((UUID) row[0]);
+        event.setName((String) row[1]);
+        event.setDescription((String) row[3]);
+        event.setStartDate((LocalDateTime) row[4]);
+        event.setEndDate((LocalDateTime) row[5]);
+        event.setLocation((String) row[6]);
+        event.setMinAttendees((Integer) row[7]);
+        event.setMaxAttendees((Integer) row[8]);
+        event.setLocationNotes((String) row[9]);
+        event.setPreparationNotes((String) row[10]);
+        event.setVersion((Long) row[11]);
+        event.setRegisteredAttendees((Integer) row[12]);
+        return event;
+    }
+
+    private Returning returning() {
+        if (returning == null) {
+            Dialect dialect = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+            returning = dialect instanceof H2Dialect ? Returning.FINAL_TABLE
+                    : dialect instanceof PostgreSQLDialect ? Returning.RETURNING_CLAUSE
+                    : Returning.NONE;
+        }
+        return returning;
+    }
+}
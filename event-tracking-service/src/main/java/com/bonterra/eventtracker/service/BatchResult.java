@@ -0,0 +1,19 @@
+package com.bonterra.eventtracker.service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Per-item outcome of a bulk ingest, in the order the items were received.
+ */
+public record BatchResult(int received, int created, int rejected, List<ItemResult> items) {
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        DUPLICATE
+    }
+
+    public record ItemResult(int index, Status status, UUID id, String message) {
+    }
+}
@@ -0,0 +1,188 @@
+package com.bonterra.eventtracker.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Registrations against a capacity, spread over stripes so concurrent
+ * registrants rarely touch the same memory. Each stripe holds its registered
+ * count and its share of the free places in one word, updated by
+ * compare-and-set: a registration takes a free place from some stripe, a
+ * cancellation gives one back. Since places are only ever moved, never
+ * created, admission is exact.
+ * <p>
+ * Lowering the capacity below what is already registered leaves a debt:
+ * cancellations pay it off before any place is freed again. While there is a
+ * debt no stripe holds a free place; cancellations hold a read lock that
+ * {@link #resize} takes for writing, so none can free a place in a stripe the
+ * resize has already emptied.
+ */
+final class CapacityCounter {
+
+    // Stripes are a cache line apart so neighbours do not contend
+    private static final int PADDING = 8;
+    private static final long ONE_REGISTERED = 1L << 32;
+
+    // What a null capacity means; per stripe it stays far from int overflow
+    private static final int UNLIMITED_PER_STRIPE = Integer.MAX_VALUE / 4;
+
+    private final int stripes;
+    private final AtomicLongArray cells;
+    private final AtomicInteger debt = new AtomicInteger();
+    private final ReadWriteLock resizing = new ReentrantReadWriteLock();
+    private Integer capacity;
+
+    CapacityCounter(int stripes, Integer capacity, int registered) {
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * PADDING);
+        this.capacity = capacity;
+
+        long free = places(capacity) - registered;
+        if (free < 0) {
+            debt.set((int) -free);
+            free = 0;
+        }
+        cells.set(0, cell(registered, 0));
+        distribute(free);
+    }
+
+    /**
+     * Takes a place, or returns false when there is none left.
+     */
+    boolean tryRegister() {
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            int index = ((start + i) % stripes) * PADDING;
+            long cell;
+            while (available(cell = cells.get(index)) > 0) {
+                if (cells.compareAndSet(index, cell, cell + ONE_REGISTERED - 1)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gives a place back, or returns false when nobody is registered.
+     */
+    boolean tryCancel() {
+        Lock lock = resizing.readLock();
+        lock.lock();
+        try {
+            boolean owed = decrementIfPositive(debt);
+            long delta = owed ? -ONE_REGISTERED : -ONE_REGISTERED + 1;
+            int start = ThreadLocalRandom.current().nextInt(stripes);
+            for (int i = 0; i < stripes; i++) {
+                int index = ((start + i) % stripes) * PADDING;
+                long cell;
+                while (registered(cell = cells.get(index)) > 0) {
+                    if (cells.compareAndSet(index, cell, cell + delta)) {
+                        return true;
+                    }
+                }
+            }
+            // A concurrent cancellation may have freed the place this one paid
+            // the debt with; withdraw it again before restoring the debt
+            if (owed && withdraw(1) == 0) {
+                debt.incrementAndGet();
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves to a new capacity, freeing or withdrawing the difference in places.
+     */
+    synchronized void resize(Integer newCapacity) {
+        Lock lock = resizing.writeLock();
+        lock.lock();
+        try {
+            long change = places(newCapacity) - places(capacity);
+            capacity = newCapacity;
+            if (change > 0) {
+                while (change > 0 && decrementIfPositive(debt)) {
+                    change--;
+                }
+                distribute(change);
+            } else if (change < 0) {
+                debt.addAndGet((int) (-change - withdraw(-change)));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Current registrations. Stripes are read one after another, so while
+     * registrations are in flight this is approximate.
+     */
+    int registered() {
+        int total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += registered(cells.get(i * PADDING));
+        }
+        return total;
+    }
+
+    synchronized Integer capacity() {
+        return capacity;
+    }
+
+    // Takes up to the given number of free places, returning how many it took
+    private long withdraw(long places) {
+        long withdrawn = 0;
+        for (int i = 0; i < stripes && withdrawn < places; i++) {
+            int index = i * PADDING;
+            long cell;
+            int taken;
+            do {
+                cell = cells.get(index);
+                taken = (int) Math.min(available(cell), places - withdrawn);
+            } while (taken > 0 && !cells.compareAndSet(index, cell, cell - taken));
+            withdrawn += taken;
+        }
+        return withdrawn;
+    }
+
+    private void distribute(long places) {
+        long share = places / stripes;
+        long remainder = places % stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.addAndGet(i * PADDING, share + (i < remainder ? 1 : 0));
+        }
+    }
+
+    private long places(Integer capacity) {
+        return capacity == null ? (long) UNLIMITED_PER_STRIPE * stripes : capacity;
+    }
+
+    private static long cell(int registered, int available) {
+        return (long) registered << 32 | available;
+    }
+
+    private static int registered(long cell) {
+        return (int) (cell >>> 32);
+    }
+
+    private static int available(long cell) {
+        return (int) cell;
+    }
+
+    private static boolean decrementIfPositive(AtomicInteger value) {
+        int current;
+        do {
+            current = value.get();
+            if (current <= 0) {
+                return false;
+            }
+        } while (!value.compareAndSet(current, current - 1));
+        return true;
+    }
+}
@@ -0,0 +1,143 @@
+package com.bonterra.eventtracker.service;
+
+import com.bonterra.eventtracker.datasource.ReplicaRoutingDataSource;
+import com.bonterra.eventtracker.entity.Event;
+import com.bonterra.eventtracker.entity.EventChange;
+import com.bonterra.eventtracker.repository.EventRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache in front of {@link EventRepository} reads.
+ * <p>
+ * Single events are loaded inside Caffeine's per-key compute, so an invalidation
+ * issued after a commit waits for any in-flight load of that key and removes
+ * what it produced. List pages are keyed by a generation counter that every
+ * committed write advances: a page loaded before the write can never be found
+ * by a request that starts after it.
+ * <p>
+ * Everything the cache stores or answers from the table is read from the
+ * primary. A replica still behind a write would otherwise refill the entry the
+ * write just invalidated with the row from before it, for every client.
+ */
+@Component
+public class EventCache implements MeterBinder {
+
+    private final EventRepository eventRepository;
+    private final Cache<UUID, Event> events;
+    private final Cache<PageKey, List<Map<String, Object>>> pages;
+    private final AtomicLong generation = new AtomicLong();
+    private final String epoch = Long.toHexString(System.currentTimeMillis());
+
+    public EventCache(EventRepository eventRepository,
+            @Value("${eventtracker.cache.max-events:10000}") long maxEvents,
+            @Value("${eventtracker.cache.max-pages:256}") long maxPages,
+            @Value("${eventtracker.cache.ttl:5m}") Duration ttl) {
+        this.eventRepository = eventRepository;
+        this.events = Caffeine.newBuilder()
+                .maximumSize(maxEvents)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxPages)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Event> findById(UUID id) {
+        // Misses are not cached: the loader returns null for an absent row
+        return Optional.ofNullable(events.get(id, key -> {
+            try (ReplicaRoutingDataSource.Pin pin = ReplicaRoutingDataSource.pinToPrimary()) {
+                return eventRepository.findById(key).orElse(null);
+            }
+        }));
+    }
+
+    /**
+     * Current version of an event, answered from the cache when the event is
+     * resident and otherwise by a single-column query that hydrates nothing.
+     */
+    public Optional<Long> findVersionById(UUID id) {
+        Event cached = events.getIfPresent(id);
+        if (cached != null) {
+            return Optional.ofNullable(cached.getVersion());
+        }
+        try (ReplicaRoutingDataSource.Pin pin = ReplicaRoutingDataSource.pinToPrimary()) {
+            return eventRepository.findVersionById(id);
+        }
+    }
+
+    /**
+     * Opaque token that changes whenever a committed write could change any
+     * list page. The instance epoch keeps tokens from repeating across restarts.
+     */
+    public String listVersion() {
+        return epoch + "-" + generation.get();
+    }
+
+    /**
+     * Returns the cached snapshot of a list page in the given fieldset, loading
+     * it on first use after the most recent write.
+     */
+    public List<Map<String, Object>> page(String cursor, int limit, Set<String> fields,
+            Supplier<List<Map<String, Object>>> loader) {
+        PageKey key = new PageKey(generation.get(), cursor, limit, fields);
+        return pages.get(key, k -> {
+            try (ReplicaRoutingDataSource.Pin pin = ReplicaRoutingDataSource.pinToPrimary()) {
+                return List.copyOf(loader.get());
+            }
+        });
+    }
+
+    @TransactionalEventListener
+    public void onChange(EventChange change) {
+        generation.incrementAndGet();
+        events.invalidate(change.id());
+        pages.invalidateAll();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("events", describe(events.stats(), events.estimatedSize()));
+        stats.put("pages", describe(pages.stats(), pages.estimatedSize()));
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, events, "events");
+        CaffeineCacheMetrics.monitor(registry, pages, "event-pages");
+    }
+
+    private static Map<String, Object> describe(CacheStats stats, long size) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("size", size);
+        description.put("hits", stats.hitCount());
+        description.put("misses", stats.missCount());
+        description.put("evictions", stats.evictionCount());
+        description.put("hitRate", stats.hitRate());
+        return description;
+    }
+
+    private record PageKey(long generation, String cursor, int limit, Set<String> fields) {
+    }
+}
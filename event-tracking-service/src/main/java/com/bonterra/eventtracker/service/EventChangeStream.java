@@ -0,0 +1,262 @@
+package com.bonterra.eventtracker.service;
+
+import com.bonterra.eventtracker.entity.Event;
+import com.bonterra.eventtracker.entity.EventChange;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans committed {@link EventChange}s out to Server-Sent Event subscribers.
+ * <p>
+ * Every change gets the next sequence number and is kept in a fixed-size ring
+ * buffer, so a client reconnecting with {@code Last-Event-ID} receives exactly
+ * the deltas it missed. When those have already been overwritten it gets a
+ * {@code reset} event and must refetch. Each subscriber has a bounded queue
+ * drained by a sender pool; a subscriber whose queue fills up is disconnected
+ * rather than buffered for, and resumes from the ring on reconnect.
+ * <p>
+ * A send is a blocking servlet write, so a client that stops reading parks
+ * the thread sending to it. The pool starts another thread rather than let
+ * that client hold up the others, and a subscriber whose send has been blocked
+ * for {@code send-timeout} is disconnected.
+ */
+@Component
+public class EventChangeStream implements MeterBinder {
+
+    public static final String READY = "ready";
+    public static final String RESET = "reset";
+
+    public record Delta(long sequence, EventChange.Type type, UUID id, Event event) {
+    }
+
+    private record Message(long sequence, String name, Object data) {
+    }
+
+    private final Message[] ring;
+    private final int queueSize;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final ExecutorService senders;
+    private final ScheduledExecutorService watchdog;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Guarded by this; sequence of the most recent change, 0 before the first
+    private long lastSequence;
+
+    public EventChangeStream(@Value("${eventtracker.stream.buffer-size:1024}") int bufferSize,
+            @Value("${eventtracker.stream.subscriber-queue-size:256}") int queueSize,
+            @Value("${eventtracker.stream.timeout:30m}") Duration timeout,
+            @Value("${eventtracker.stream.sender-threads:4}") int senderThreads,
+            @Value("${eventtracker.stream.send-timeout:10s}") Duration sendTimeout) {
+        this.ring = new Message[bufferSize];
+        this.queueSize = queueSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        AtomicInteger threadNumber = new AtomicInteger();
+        // senderThreads are kept; extra ones only live while sends are blocked
+        this.senders = new ThreadPoolExecutor(senderThreads, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "event-stream-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-stream-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long checkMillis = Math.max(1, sendTimeout.toMillis() / 2);
+        watchdog.scheduleWithFixedDelay(this::closeBlocked, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener
+    public void onChange(EventChange change) {
+        Event event = change.type() == EventChange.Type.DELETED ? null : change.event();
+        synchronized (this) {
+            long sequence = ++lastSequence;
+            Message message = new Message(sequence, change.type().name(),
+                    new Delta(sequence, change.type(), change.id(), event));
+            ring[(int) (sequence % ring.length)] = message;
+            // Offered under the lock so every subscriber sees deltas in sequence order
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(message);
+            }
+        }
+    }
+
+    /**
+     * Opens a stream. Without {@code lastEventId} it starts at the current
+     * position; with one it first replays every buffered delta after it.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        return subscribe(lastEventId, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(Long lastEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        synchronized (this) {
+            long oldest = Math.max(1, lastSequence - ring.length + 1);
+            if (lastEventId == null) {
+                subscriber.offer(marker(READY));
+            } else if (lastEventId < oldest - 1 || lastEventId > lastSequence
+                    || lastSequence - lastEventId > queueSize) {
+                subscriber.offer(marker(RESET));
+            } else {
+                for (long sequence = lastEventId + 1; sequence <= lastSequence; sequence++) {
+                    subscriber.offer(ring[(int) (sequence % ring.length)]);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        return subscriber.emitter;
+    }
+
+    public synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("eventtracker.stream.subscribers", subscribers, Set::size)
+                .description("Open change-stream connections")
+                .register(registry);
+        FunctionCounter.builder("eventtracker.stream.dropped", dropped, AtomicLong::get)
+                .description("Subscribers disconnected because they fell too far behind or stopped reading")
+                .register(registry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        watchdog.shutdownNow();
+        subscribers.forEach(Subscriber::close);
+        // Lets the senders complete the emitters they were just handed
+        senders.shutdown();
+    }
+
+    private void closeBlocked() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.sendStartedAt;
+            if (started != 0 && now - started > sendTimeoutNanos) {
+                dropped.incrementAndGet();
+                subscriber.close();
+            }
+        }
+    }
+
+    // Caller holds the lock
+    private Message marker(String name) {
+        return new Message(lastSequence, name, Map.of("sequence", lastSequence));
+    }
+
+    private final class Subscriber {
+
+        final SseEmitter emitter;
+        final BlockingQueue<Message> queue = new ArrayBlockingQueue<>(queueSize);
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+        final AtomicBoolean completed = new AtomicBoolean();
+
+        // System.nanoTime() when the send in progress started, 0 between sends
+        volatile long sendStartedAt;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+            emitter.onCompletion(() -> subscribers.remove(this));
+            emitter.onTimeout(this::close);
+            emitter.onError(error -> close());
+        }
+
+        void offer(Message message) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(message)) {
+                dropped.incrementAndGet();
+                close();
+                return;
+            }
+            schedule();
+        }
+
+        void drain() {
+            try {
+                Message message;
+                while (!closed.get() && (message = queue.poll()) != null) {
+                    sendStartedAt = Math.max(1, System.nanoTime());
+                    try {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(message.sequence()))
+                                .name(message.name())
+                                .data(message.data(), MediaType.APPLICATION_JSON));
+                    } finally {
+                        sendStartedAt = 0;
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                scheduled.set(false);
+            }
+            if (closed.get()) {
+                if (completed.compareAndSet(false, true)) {
+                    emitter.complete();
+                }
+            } else if (!queue.isEmpty()) {
+                // A message offered after the last poll but before the flag was cleared
+                schedule();
+            }
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        /**
+         * Stops delivery at once. The emitter is completed by a sender, since a
+         * send blocked on the socket holds it until the write returns.
+         */
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.remove(this);
+                queue.clear();
+                schedule();
+            }
+        }
+    }
+}
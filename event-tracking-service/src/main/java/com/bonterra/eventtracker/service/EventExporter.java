@@ -0,0 +1,139 @@
+package com.bonterra.eventtracker.service;
+
+import com.bonterra.eventtracker.entity.Event;
+import com.bonterra.eventtracker.repository.EventRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every event to an output stream as NDJSON or CSV. Rows come from a
+ * cursor-backed query and the persistence context is cleared as the export
+ * goes, so memory use does not grow with the size of the table.
+ */
+@Service
+public class EventExporter {
+
+    static final int CLEAR_INTERVAL = 1000;
+
+    private static final String[] CSV_HEADER = { "id", "name", "description", "startDate", "endDate", "location",
+            "minAttendees", "maxAttendees", "registeredAttendees", "locationNotes", "preparationNotes", "version" };
+
+    public enum Format {
+        NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    /**
+     * Streams the whole table to {@code out} in start-date order and returns the
+     * number of events written. The stream is flushed but not closed.
+     */
+    public long export(Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        ObjectWriter json = jsonMapper.writerFor(Event.class);
+
+        // The cursor only stays open inside a transaction (PostgreSQL ignores the
+        // fetch size under autocommit)
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        try {
+            Long written = readOnly.execute(status -> {
+                long count = 0;
+                try (Stream<Event> events = eventRepository.streamAllForExport()) {
+                    if (format == Format.CSV) {
+                        writeCsvRow(writer, (Object[]) CSV_HEADER);
+                    }
+                    Iterator<Event> iterator = events.iterator();
+                    while (iterator.hasNext()) {
+                        Event event = iterator.next();
+                        if (format == Format.NDJSON) {
+                            writer.write(json.writeValueAsString(event));
+                            writer.write('\n');
+                        } else {
+                            writeCsvRow(writer, event.getId(), event.getName(), event.getDescription(),
+                                    event.getStartDate(), event.getEndDate(), event.getLocation(),
+                                    event.getMinAttendees(), event.getMaxAttendees(), event.getRegisteredAttendees(),
+                                    event.getLocationNotes(), event.getPreparationNotes(), event.getVersion());
+                        }
+                        if (++count % CLEAR_INTERVAL == 0) {
+                            entityManager.clear();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+            writer.flush();
+            return written == null ? 0 : written;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(csvEscape(values[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks
+    static String csvEscape(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+}
@@ -0,0 +1,165 @@
+package com.bonterra.eventtracker.service;
+
+import com.bonterra.eventtracker.entity.Event;
+import com.bonterra.eventtracker.repository.EventConstraints;
+import com.bonterra.eventtracker.repository.EventRepository;
+import com.bonterra.eventtracker.service.BatchResult.ItemResult;
+import com.bonterra.eventtracker.service.BatchResult.Status;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk event creation. Items are validated in memory, checked for duplicate
+ * names with one set-based query per chunk and inserted through Hibernate's
+ * JDBC batching, one transaction per chunk.
+ */
+@Service
+public class EventIngestService {
+
+    static final int CHUNK_SIZE = 500;
+
+    private static final String DUPLICATE_NAME = "An event with this name already exists";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public Ingestion begin() {
+        return new Ingestion();
+    }
+
+    private static String validate(Event event) {
+        if (event.getName() == null || event.getName().isBlank()) {
+            return "name is required";
+        }
+        if (event.getDescription() == null) {
+            return "description is required";
+        }
+        if (event.getLocation() == null) {
+            return "location is required";
+        }
+        if (event.getStartDate() == null || event.getEndDate() == null) {
+            return "startDate and endDate are required";
+        }
+        if (event.getStartDate().isAfter(event.getEndDate())) {
+            return "Start date must be before end date";
+        }
+        return null;
+    }
+
+    private record Pending(int index, Event event) {
+    }
+
+    /**
+     * A single bulk request. Items are buffered and written a chunk at a time, so
+     * a streamed request never holds more than one chunk of entities.
+     */
+    public class Ingestion {
+
+        private final List<ItemResult> results = new ArrayList<>();
+        private final Set<String> seenNames = new HashSet<>();
+        private final List<Pending> pending = new ArrayList<>(CHUNK_SIZE);
+
+        public void add(Event event) {
+            int index = results.size();
+            results.add(null);
+
+            String problem = validate(event);
+            if (problem != null) {
+                results.set(index, new ItemResult(index, Status.INVALID, null, problem));
+                return;
+            }
+            if (!seenNames.add(event.getNormalizedName())) {
+                results.set(index, new ItemResult(index, Status.DUPLICATE, null, DUPLICATE_NAME));
+                return;
+            }
+
+            // Ids are always generated on insert
+            event.setId(null);
+            pending.add(new Pending(index, event));
+            if (pending.size() >= CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        public void reject(String message) {
+            int index = results.size();
+            results.add(new ItemResult(index, Status.INVALID, null, message));
+        }
+
+        public BatchResult finish() {
+            flush();
+            int created = (int) results.stream().filter(r -> r.status() == Status.CREATED).count();
+            return new BatchResult(results.size(), created, results.size() - created, List.copyOf(results));
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<Pending> chunk = new ArrayList<>(pending);
+            pending.clear();
+
+            Set<String> existing = new HashSet<>(eventRepository.findExistingNormalizedNames(
+                    chunk.stream().map(p -> p.event().getNormalizedName()).toList()));
+            List<Pending> inserts = new ArrayList<>(chunk.size());
+            for (Pending p : chunk) {
+                if (existing.contains(p.event().getNormalizedName())) {
+                    results.set(p.index(), new ItemResult(p.index(), Status.DUPLICATE, null, DUPLICATE_NAME));
+                } else {
+                    inserts.add(p);
+                }
+            }
+            if (inserts.isEmpty()) {
+                return;
+            }
+
+            try {
+                insert(inserts);
+            } catch (RuntimeException e) {
+                if (!EventConstraints.isDuplicateName(e)) {
+                    throw e;
+                }
+                // A concurrent writer claimed one of the names after our check;
+                // retry row by row so only the conflicting items are rejected
+                for (Pending p : inserts) {
+                    p.event().setId(null);
+                    try {
+                        insert(List.of(p));
+                    } catch (RuntimeException single) {
+                        if (!EventConstraints.isDuplicateName(single)) {
+                            throw single;
+                        }
+                        results.set(p.index(), new ItemResult(p.index(), Status.DUPLICATE, null, DUPLICATE_NAME));
+                    }
+                }
+            }
+        }
+
+        private void insert(List<Pending> items) {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Pending p : items) {
+                    entityManager.persist(p.event());
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            for (Pending p : items) {
+                results.set(p.index(), new ItemResult(p.index(), Status.CREATED, p.event().getId(), null));
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.bonterra.eventtracker.service;
+
+import com.bonterra.eventtracker.entity.Event;
+import com.bonterra.eventtracker.entity.EventChange;
+import com.bonterra.eventtracker.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Time-range index over event schedules: one {@link IntervalTree} for all
+ * events plus one per location, so both "what runs between T1 and T2" and
+ * "what else is booked at this location" are answered without a table scan.
+ * Built at startup and kept current from committed {@link EventChange}s.
+ */
+@Component
+public class EventIntervalIndex {
+
+    private static final int BOOKING_STRIPES = 64;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    private final IntervalTree all = new IntervalTree();
+    private final Map<String, IntervalTree> byLocation = new HashMap<>();
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final EventTableLoader loader = new EventTableLoader(lock.writeLock());
+    private final Lock[] bookingLocks = new Lock[BOOKING_STRIPES];
+
+    {
+        for (int i = 0; i < bookingLocks.length; i++) {
+            bookingLocks[i] = new ReentrantLock();
+        }
+    }
+
+    private record Entry(LocalDateTime start, LocalDateTime end, String location) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        loader.load(eventRepository, this::put);
+    }
+
+    @TransactionalEventListener
+    public void onChange(EventChange change) {
+        lock.writeLock().lock();
+        try {
+            loader.changed(change.id());
+            if (change.type() == EventChange.Type.DELETED) {
+                remove(change.id());
+            } else {
+                put(change.event());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of events running at some point in {@code [from, to)}, ordered by start
+     * date. When {@code location} is given only events there are returned.
+     */
+    public List<UUID> overlapping(LocalDateTime from, LocalDateTime to, String location) {
+        List<UUID> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            IntervalTree tree = location == null ? all : byLocation.get(locationKey(location));
+            if (tree != null) {
+                tree.overlapping(from, to, ids::add);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+
+    /**
+     * Whether another event at the same location overlaps the given schedule.
+     * {@code self} is ignored so an event never conflicts with its own booking.
+     */
+    public boolean hasConflict(String location, LocalDateTime start, LocalDateTime end, UUID self) {
+        if (location == null || start == null || end == null) {
+            return false;
+        }
+        boolean[] conflict = new boolean[1];
+        lock.readLock().lock();
+        try {
+            IntervalTree tree = byLocation.get(locationKey(location));
+            if (tree != null) {
+                tree.overlapping(start, end, id -> conflict[0] |= !id.equals(self));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return conflict[0];
+    }
+
+    /**
+     * Runs {@code booking}, a conflict check and the write it allows, while no
+     * other booking at the same location runs in this instance. The write must
+     * have committed, and so reached the index, by the time it returns.
+     */
+    public <T> T book(String location, Supplier<T> booking) {
+        if (location == null) {
+            return booking.get();
+        }
+        Lock stripe = bookingLocks[Math.floorMod(locationKey(location).hashCode(), bookingLocks.length)];
+        stripe.lock();
+        try {
+            return booking.get();
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    private void put(Event event) {
+        remove(event.getId());
+
+        Entry entry = new Entry(event.getStartDate(), event.getEndDate(), locationKey(event.getLocation()));
+        entries.put(event.getId(), entry);
+        all.insert(entry.start(), entry.end(), event.getId());
+        byLocation.computeIfAbsent(entry.location(), l -> new IntervalTree())
+                .insert(entry.start(), entry.end(), event.getId());
+    }
+
+    private void remove(UUID id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        all.remove(entry.start(), id);
+        IntervalTree tree = byLocation.get(entry.location());
+        tree.remove(entry.start(), id);
+        if (tree.size() == 0) {
+            byLocation.remove(entry.location());
+        }
+    }
+
+    private static String locationKey(String location) {
+        return location.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,191 @@
+package com.bonterra.eventtracker.service;
+
+import com.bonterra.eventtracker.datasource.ReplicaRoutingDataSource;
+import com.bonterra.eventtracker.entity.EventChange;
+import com.bonterra.eventtracker.repository.EventRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registration against an event's {@code maxAttendees}. Admission is decided
+ * by an in-memory {@link CapacityCounter} per event, loaded from the table on
+ * first use, so a registration never waits on a row lock. Counts that moved
+ * are written back in one batch every {@code flush-interval}.
+ */
+@Service
+public class EventRegistrations implements MeterBinder {
+
+    // Enough stripes that registrants on every core rarely meet on one
+    private static final int STRIPES = Math.min(64,
+            Integer.highestOneBit(Math.max(1, 2 * Runtime.getRuntime().availableProcessors() - 1)) << 1);
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    private final Map<UUID, CapacityCounter> counters = new ConcurrentHashMap<>();
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public record Status(UUID eventId, int registered, Integer capacity) {
+    }
+
+    public record Outcome(boolean accepted, Status status) {
+    }
+
+    // A row's capacity and flushed count
+    private record State(Integer capacity, int registered) {
+    }
+
+    /**
+     * Takes a place at the event. Empty when the event does not exist.
+     */
+    public Optional<Outcome> register(UUID eventId) {
+        return counter(eventId).map(counter -> {
+            boolean taken = counter.tryRegister();
+            if (taken) {
+                dirty.add(eventId);
+                accepted.increment();
+            } else {
+                rejected.increment();
+            }
+            return new Outcome(taken, status(eventId, counter));
+        });
+    }
+
+    /**
+     * Gives a place back. Not accepted when nobody is registered.
+     */
+    public Optional<Outcome> cancel(UUID eventId) {
+        return counter(eventId).map(counter -> {
+            boolean released = counter.tryCancel();
+            if (released) {
+                dirty.add(eventId);
+            }
+            return new Outcome(released, status(eventId, counter));
+        });
+    }
+
+    public Optional<Status> status(UUID eventId) {
+        CapacityCounter counter = counters.get(eventId);
+        if (counter != null) {
+            return Optional.of(status(eventId, counter));
+        }
+        return readState(eventId).map(state -> new Status(eventId, state.registered(), state.capacity()));
+    }
+
+    private static Status status(UUID eventId, CapacityCounter counter) {
+        return new Status(eventId, counter.registered(), counter.capacity());
+    }
+
+    private Optional<CapacityCounter> counter(UUID eventId) {
+        CapacityCounter counter = counters.get(eventId);
+        if (counter != null) {
+            return Optional.of(counter);
+        }
+        Optional<State> state = readState(eventId);
+        if (state.isEmpty()) {
+            return Optional.empty();
+        }
+        CapacityCounter loaded = new CapacityCounter(STRIPES, state.get().capacity(), state.get().registered());
+        counter = counters.putIfAbsent(eventId, loaded);
+        if (counter != null) {
+            return Optional.of(counter);
+        }
+
+        // An update committed between the read and the insert found no counter
+        // to resize, so look at the capacity once more
+        Optional<State> latest = readState(eventId);
+        if (latest.isEmpty()) {
+            counters.remove(eventId, loaded);
+            return Optional.empty();
+        }
+        loaded.resize(latest.get().capacity());
+        return Optional.of(loaded);
+    }
+
+    private Optional<State> readState(UUID eventId) {
+        // A replica could still hold a count older than the last flush
+        List<Object[]> rows;
+        try (ReplicaRoutingDataSource.Pin pin = ReplicaRoutingDataSource.pinToPrimary()) {
+            rows = eventRepository.findRegistrationState(eventId);
+        }
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = rows.get(0);
+        return Optional.of(new State((Integer) row[0], ((Number) row[1]).intValue()));
+    }
+
+    @TransactionalEventListener
+    public void onChange(EventChange change) {
+        if (change.type() == EventChange.Type.DELETED) {
+            counters.remove(change.id());
+            return;
+        }
+        CapacityCounter counter = counters.get(change.id());
+        if (counter != null) {
+            counter.resize(change.event().getMaxAttendees());
+        }
+    }
+
+    /**
+     * Writes every count that moved since the last flush. Returns the number
+     * of rows changed.
+     */
+    @Scheduled(fixedDelayString = "${eventtracker.registrations.flush-interval:1s}")
+    public synchronized int flush() {
+        // Ids leave the set before their count is read, so a registration
+        // landing after the read marks the id again for the next flush
+        Map<UUID, Integer> counts = new HashMap<>();
+        for (Iterator<UUID> ids = dirty.iterator(); ids.hasNext(); ) {
+            UUID id = ids.next();
+            ids.remove();
+            CapacityCounter counter = counters.get(id);
+            if (counter != null) {
+                counts.put(id, counter.registered());
+            }
+        }
+        try {
+            return eventRepository.updateRegisteredAttendees(counts);
+        } catch (RuntimeException e) {
+            dirty.addAll(counts.keySet());
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        flush();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("eventtracker.registrations.accepted", accepted, LongAdder::sum)
+                .description("Registrations that got a place")
+                .register(registry);
+        FunctionCounter.builder("eventtracker.registrations.rejected", rejected, LongAdder::sum)
+                .description("Registrations refused because the event was full")
+                .register(registry);
+        Gauge.builder("eventtracker.registrations.pending", dirty, Set::size)
+                .description("Events whose count has not been written yet")
+                .register(registry);
+    }
+}
@@ -0,0 +1,200 @@
+package com.bonterra.eventtracker.service;
+
+import com.bonterra.eventtracker.entity.Event;
+import com.bonterra.eventtracker.entity.EventChange;
+import com.bonterra.eventtracker.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over event name, location and description.
+ * <p>
+ * Terms are kept in a sorted map so a query term is matched as a word prefix
+ * with one range lookup. Each posting records a field-weighted score, and exact
+ * term hits count double. A query walks the postings of its rarest term only
+ * and checks the other terms against each remaining document. The index is
+ * built once at startup and then kept current from committed
+ * {@link EventChange}s.
+ */
+@Component
+public class EventSearchIndex {
+
+    static final int NAME_WEIGHT = 3;
+    static final int LOCATION_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    private final NavigableMap<String, Map<UUID, Integer>> postings = new TreeMap<>();
+    private final Map<UUID, Map<String, Integer>> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final EventTableLoader loader = new EventTableLoader(lock.writeLock());
+
+    public record Hit(UUID id, int score) {
+    }
+
+    // The postings of every indexed word a query term is a prefix of
+    private record Range(String term, NavigableMap<String, Map<UUID, Integer>> postings, long size) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        loader.load(eventRepository, this::put);
+    }
+
+    @TransactionalEventListener
+    public void onChange(EventChange change) {
+        lock.writeLock().lock();
+        try {
+            loader.changed(change.id());
+            if (change.type() == EventChange.Type.DELETED) {
+                remove(change.id());
+            } else {
+                put(change.event());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks events matching every term of the query, best first.
+     */
+    public List<Hit> search(String query) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            // Only the rarest term's postings are walked; every other term is
+            // checked against the few documents still in the running
+            List<Range> ranges = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Range range = range(term);
+                if (range.size() == 0) {
+                    return List.of();
+                }
+                ranges.add(range);
+            }
+            ranges.sort(Comparator.comparingLong(Range::size));
+
+            Range rarest = ranges.get(0);
+            Map<UUID, Integer> scores = new HashMap<>();
+            rarest.postings().forEach((term, ids) -> {
+                int boost = term.equals(rarest.term()) ? 2 : 1;
+                ids.forEach((id, weight) -> scores.merge(id, weight * boost, Integer::sum));
+            });
+            for (Range range : ranges.subList(1, ranges.size())) {
+                scores.replaceAll((id, score) -> {
+                    int termScore = score(documents.get(id), range.term());
+                    return termScore == 0 ? null : score + termScore;
+                });
+                scores.values().removeIf(Objects::isNull);
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> hits.add(new Hit(id, score)));
+            hits.sort(Comparator.comparingInt(Hit::score).reversed().thenComparing(Hit::id));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Range range(String term) {
+        NavigableMap<String, Map<UUID, Integer>> matches =
+                postings.subMap(term, true, term + Character.MAX_VALUE, false);
+        long size = 0;
+        for (Map<UUID, Integer> ids : matches.values()) {
+            size += ids.size();
+        }
+        return new Range(term, matches, size);
+    }
+
+    // A document's score for one query term, zero when no word starts with it
+    private static int score(Map<String, Integer> documentTerms, String term) {
+        int score = 0;
+        for (Map.Entry<String, Integer> entry : documentTerms.entrySet()) {
+            if (entry.getKey().startsWith(term)) {
+                score += entry.getValue() * (entry.getKey().equals(term) ? 2 : 1);
+            }
+        }
+        return score;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(Event event) {
+        remove(event.getId());
+
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, event.getName(), NAME_WEIGHT);
+        addTerms(terms, event.getLocation(), LOCATION_WEIGHT);
+        addTerms(terms, event.getDescription(), DESCRIPTION_WEIGHT);
+
+        documents.put(event.getId(), terms);
+        terms.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(event.getId(), weight));
+    }
+
+    private void remove(UUID id) {
+        Map<String, Integer> terms = documents.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<UUID, Integer> ids = postings.get(term);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String term : tokenize(text)) {
+            terms.merge(term, weight, Integer::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,262 @@
+package com.bonterra.eventtracker.service;
+
+import com.bonterra.eventtracker.datasource.ReplicaRoutingDataSource;
+import com.bonterra.eventtracker.entity.Event;
+import com.bonterra.eventtracker.entity.EventChange;
+import com.bonterra.eventtracker.repository.EventRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Dashboard aggregates over all events: counts per start month and per
+ * location, active versus archived, and total attendee capacity. Seeded from
+ * the table at startup and then adjusted by each committed {@link EventChange},
+ * using the contribution remembered for every id, so reading them never
+ * touches the database. A scheduled reconciliation compares them with grouped
+ * queries and rebuilds them if they have drifted.
+ */
+@Component
+public class EventStatistics implements MeterBinder {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    // Guards the aggregates, the change count and the loader
+    private final Lock lock = new ReentrantLock();
+    private final EventTableLoader loader = new EventTableLoader(lock);
+
+    private Aggregates current = new Aggregates(LocalDateTime.now());
+
+    // Incremented for every applied change, so reconciliation can tell whether
+    // the table moved while it was being queried
+    private long changes;
+
+    private final Object rebuildLock = new Object();
+    private final AtomicLong corrections = new AtomicLong();
+
+    public record Snapshot(long total, long active, long archived, long totalMinAttendees, long totalMaxAttendees,
+            Map<String, Long> byMonth, Map<String, Long> byLocation) {
+    }
+
+    private record Contribution(YearMonth month, String location, LocalDateTime end, long minAttendees,
+            long maxAttendees) {
+
+        static Contribution of(Event event) {
+            return new Contribution(YearMonth.from(event.getStartDate()), event.getLocation(), event.getEndDate(),
+                    event.getMinAttendees() == null ? 0 : event.getMinAttendees(),
+                    event.getMaxAttendees() == null ? 0 : event.getMaxAttendees());
+        }
+    }
+
+    /**
+     * The running totals plus the contribution of every event to them. Events
+     * whose end is still ahead of {@code watermark} wait in {@code pendingEnds}
+     * and move to {@code archived} once time passes them, so each event is
+     * archived once instead of every read counting them again.
+     */
+    private static final class Aggregates {
+
+        final Map<UUID, Contribution> contributions = new HashMap<>();
+        final Map<YearMonth, Long> byMonth = new TreeMap<>();
+        final Map<String, Long> byLocation = new TreeMap<>();
+        final TreeMap<LocalDateTime, Long> pendingEnds = new TreeMap<>();
+        LocalDateTime watermark;
+        long archived;
+        long minAttendees;
+        long maxAttendees;
+
+        Aggregates(LocalDateTime watermark) {
+            this.watermark = watermark;
+        }
+
+        void put(UUID id, Contribution contribution) {
+            Contribution previous = contributions.put(id, contribution);
+            if (previous != null) {
+                subtract(previous);
+            }
+            byMonth.merge(contribution.month(), 1L, Long::sum);
+            byLocation.merge(contribution.location(), 1L, Long::sum);
+            if (contribution.end().isBefore(watermark)) {
+                archived++;
+            } else {
+                pendingEnds.merge(contribution.end(), 1L, Long::sum);
+            }
+            minAttendees += contribution.minAttendees();
+            maxAttendees += contribution.maxAttendees();
+        }
+
+        void remove(UUID id) {
+            Contribution previous = contributions.remove(id);
+            if (previous != null) {
+                subtract(previous);
+            }
+        }
+
+        private void subtract(Contribution contribution) {
+            decrement(byMonth, contribution.month());
+            decrement(byLocation, contribution.location());
+            if (contribution.end().isBefore(watermark)) {
+                archived--;
+            } else {
+                decrement(pendingEnds, contribution.end());
+            }
+            minAttendees -= contribution.minAttendees();
+            maxAttendees -= contribution.maxAttendees();
+        }
+
+        void advanceTo(LocalDateTime now) {
+            if (now.isAfter(watermark)) {
+                Map<LocalDateTime, Long> passed = pendingEnds.headMap(now);
+                passed.values().forEach(count -> archived += count);
+                passed.clear();
+                watermark = now;
+            }
+        }
+
+        private static <K> void decrement(Map<K, Long> counts, K key) {
+            counts.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        synchronized (rebuildLock) {
+            Aggregates building = new Aggregates(LocalDateTime.now());
+            loader.load(eventRepository, event -> building.put(event.getId(), Contribution.of(event)), changed -> {
+                for (UUID id : changed) {
+                    Contribution live = current.contributions.get(id);
+                    if (live == null) {
+                        building.remove(id);
+                    } else {
+                        building.put(id, live);
+                    }
+                }
+                building.advanceTo(current.watermark);
+                current = building;
+            });
+        }
+    }
+
+    @TransactionalEventListener
+    public void onChange(EventChange change) {
+        lock.lock();
+        try {
+            loader.changed(change.id());
+            if (change.type() == EventChange.Type.DELETED) {
+                current.remove(change.id());
+            } else {
+                current.put(change.id(), Contribution.of(change.event()));
+            }
+            changes++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Snapshot snapshot() {
+        return snapshot(LocalDateTime.now());
+    }
+
+    private Snapshot snapshot(LocalDateTime now) {
+        lock.lock();
+        try {
+            current.advanceTo(now);
+            long total = current.contributions.size();
+            Map<String, Long> byMonth = new LinkedHashMap<>();
+            current.byMonth.forEach((month, count) -> byMonth.put(month.toString(), count));
+            return new Snapshot(total, total - current.archived, current.archived, current.minAttendees,
+                    current.maxAttendees, byMonth, new LinkedHashMap<>(current.byLocation));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Recomputes the aggregates with grouped queries and rebuilds the in-memory
+     * copy if they disagree. Skipped when a change lands mid-check, since the two
+     * sides would then describe different moments.
+     */
+    @Scheduled(fixedDelayString = "${eventtracker.stats.reconcile-interval:10m}",
+            initialDelayString = "${eventtracker.stats.reconcile-interval:10m}")
+    public boolean reconcile() {
+        LocalDateTime now = LocalDateTime.now();
+        long before;
+        lock.lock();
+        try {
+            if (loader.loading()) {
+                return false;
+            }
+            before = changes;
+        } finally {
+            lock.unlock();
+        }
+
+        Snapshot database;
+        // Replicas may lag behind the changes already applied here
+        try (ReplicaRoutingDataSource.Pin pin = ReplicaRoutingDataSource.pinToPrimary()) {
+            database = query(now);
+        }
+
+        Snapshot memory;
+        lock.lock();
+        try {
+            // A read since the check started has already archived events as of
+            // a later time than the queries used
+            if (changes != before || current.watermark.isAfter(now)) {
+                return false;
+            }
+            memory = snapshot(now);
+        } finally {
+            lock.unlock();
+        }
+        if (memory.equals(database)) {
+            return false;
+        }
+
+        build();
+        corrections.incrementAndGet();
+        return true;
+    }
+
+    private Snapshot query(LocalDateTime now) {
+        Object[] totals = eventRepository.summarizeForStatistics(now).get(0);
+        Map<String, Long> byMonth = new TreeMap<>();
+        for (Object[] row : eventRepository.countByStartMonth()) {
+            YearMonth month = YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+            byMonth.put(month.toString(), ((Number) row[2]).longValue());
+        }
+        Map<String, Long> byLocation = new TreeMap<>();
+        for (Object[] row : eventRepository.countByLocation()) {
+            byLocation.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        long total = ((Number) totals[0]).longValue();
+        long archived = ((Number) totals[3]).longValue();
+        return new Snapshot(total, total - archived, archived, ((Number) totals[1]).longValue(),
+                ((Number) totals[2]).longValue(), new LinkedHashMap<>(byMonth), new LinkedHashMap<>(byLocation));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("eventtracker.stats.corrections", corrections, AtomicLong::get)
+                .description("Reconciliations that found drift and rebuilt the aggregates")
+                .register(registry);
+    }
+}
@@ -0,0 +1,98 @@
+package com.bonterra.eventtracker.service;
+
+import com.bonterra.eventtracker.entity.Event;
+import com.bonterra.eventtracker.repository.EventRepository;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+
+/**
+ * Loads every event into an in-memory view that committed changes keep
+ * updating while the load runs. The view reports each change with
+ * {@link #changed(UUID)}; rows read for an id changed after the load started
+ * may already be stale, so the load skips them and leaves the id to the change
+ * listener.
+ * <p>
+ * The view's lock guards both its own state and the loader; every method but
+ * {@code load} expects the caller to hold it.
+ */
+final class EventTableLoader {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final Lock lock;
+
+    // Only set while a load is running
+    private Set<UUID> changed;
+
+    EventTableLoader(Lock lock) {
+        this.lock = lock;
+    }
+
+    /**
+     * Passes each event to {@code put} under the lock, one batch at a time.
+     */
+    void load(EventRepository eventRepository, Consumer<Event> put) {
+        load(eventRepository, put, ids -> {
+        });
+    }
+
+    /**
+     * Like {@link #load(EventRepository, Consumer)}, then runs {@code finish}
+     * under the same lock hold that ends the load, with the ids changed
+     * meanwhile, including those whose batch came before the change. A view
+     * built off to the side uses it to take those ids from the live one.
+     */
+    void load(EventRepository eventRepository, Consumer<Event> put, Consumer<Set<UUID>> finish) {
+        lock.lock();
+        try {
+            changed = new HashSet<>();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            eventRepository.forEachBatch(BATCH_SIZE, batch -> {
+                lock.lock();
+                try {
+                    for (Event event : batch) {
+                        if (!changed.contains(event.getId())) {
+                            put.accept(event);
+                        }
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                changed = null;
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+
+        lock.lock();
+        try {
+            finish.accept(changed);
+        } finally {
+            changed = null;
+            lock.unlock();
+        }
+    }
+
+    void changed(UUID id) {
+        if (changed != null) {
+            changed.add(id);
+        }
+    }
+
+    boolean loading() {
+        return changed != null;
+    }
+}
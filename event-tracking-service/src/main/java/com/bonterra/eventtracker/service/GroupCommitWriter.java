@@ -0,0 +1,165 @@
+package com.bonterra.eventtracker.service;
+
+import com.bonterra.eventtracker.entity.Event;
+import com.bonterra.eventtracker.service.BatchResult.ItemResult;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind group commit for single-event creates. Callers enqueue and wait
+ * on a future; one writer thread drains the queue into micro-batches, closed by
+ * size or by {@code max-wait} after the first item, and commits each batch as
+ * one {@link EventIngestService} chunk. Every future completes only after its
+ * batch has committed, with the same per-item outcome a batch request reports.
+ */
+@Service
+@ConditionalOnProperty(prefix = "eventtracker.ingest.group-commit", name = "enabled", havingValue = "true")
+public class GroupCommitWriter {
+
+    private record Submission(Event event, CompletableFuture<ItemResult> result, long enqueuedAt) {
+    }
+
+    private final EventIngestService eventIngestService;
+    private final BlockingQueue<Submission> queue;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final Thread writer;
+    private final DistributionSummary batchSizes;
+    private final Timer commitLatency;
+    private final Timer queueWait;
+
+    private volatile boolean running = true;
+
+    public GroupCommitWriter(EventIngestService eventIngestService, MeterRegistry meterRegistry,
+            @Value("${eventtracker.ingest.group-commit.queue-capacity:10000}") int queueCapacity,
+            @Value("${eventtracker.ingest.group-commit.max-batch-size:200}") int maxBatchSize,
+            @Value("${eventtracker.ingest.group-commit.max-wait:5ms}") Duration maxWait) {
+        this.eventIngestService = eventIngestService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        // A larger batch would be split into several ingest chunks, i.e. several commits
+        this.maxBatchSize = Math.min(maxBatchSize, EventIngestService.CHUNK_SIZE);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.writer = new Thread(this::run, "group-commit-writer");
+        this.writer.setDaemon(true);
+
+        Gauge.builder("eventtracker.ingest.queue.depth", queue, BlockingQueue::size)
+                .description("Creates waiting for the group-commit writer")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("eventtracker.ingest.batch.size")
+                .description("Events committed per group-commit transaction")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.commitLatency = Timer.builder("eventtracker.ingest.batch.commit")
+                .description("Time to write and commit one batch")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("eventtracker.ingest.queue.wait")
+                .description("Time a create waited in the queue before its batch started")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        writer.start();
+    }
+
+    /**
+     * Drains what is already queued, then stops the writer.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    /**
+     * Queues an event for the next batch. The future fails with
+     * {@link RejectedExecutionException} at once when the queue is full.
+     */
+    public CompletableFuture<ItemResult> submit(Event event) {
+        Submission submission = new Submission(event, new CompletableFuture<>(), System.nanoTime());
+        if (!running || !queue.offer(submission)) {
+            submission.result().completeExceptionally(new RejectedExecutionException("Ingest queue is full"));
+        } else if (!running && queue.remove(submission)) {
+            // Stopped between the check and the offer; the writer may already
+            // have drained the queue for the last time
+            submission.result().completeExceptionally(new RejectedExecutionException("Group-commit writer stopped"));
+        }
+        return submission.result();
+    }
+
+    private void run() {
+        List<Submission> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                Submission first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Submission next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Whatever made the writer stop, nothing may be left waiting on it
+            RejectedExecutionException stopped = new RejectedExecutionException("Group-commit writer stopped");
+            batch.forEach(s -> s.result().completeExceptionally(stopped));
+            Submission left;
+            while ((left = queue.poll()) != null) {
+                left.result().completeExceptionally(stopped);
+            }
+        }
+    }
+
+    private void commit(List<Submission> batch) {
+        long started = System.nanoTime();
+        for (Submission submission : batch) {
+            queueWait.record(started - submission.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+        batchSizes.record(batch.size());
+
+        // The ingest chunk already resolves duplicate names within the batch and
+        // against the table, and retries row by row if a concurrent writer wins
+        try {
+            EventIngestService.Ingestion ingestion = eventIngestService.begin();
+            batch.forEach(submission -> ingestion.add(submission.event()));
+            List<ItemResult> results = ingestion.finish().items();
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(results.get(i));
+            }
+        } catch (Throwable e) {
+            // Errors too: an unanswered future leaves its request waiting
+            batch.forEach(submission -> submission.result().completeExceptionally(e));
+        } finally {
+            commitLatency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.bonterra.eventtracker.service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Half-open {@code [start, end)} intervals keyed by {@code (start, id)} in a
+ * treap whose nodes also track the largest end in their subtree. Subtrees that
+ * end before a query begins, or start after it ends, are skipped, so an overlap
+ * query costs O(log n + k) expected. Not thread-safe.
+ */
+class IntervalTree {
+
+    private Node root;
+    private int size;
+
+    private static final class Node {
+        final LocalDateTime start;
+        final LocalDateTime end;
+        final UUID id;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        LocalDateTime maxEnd;
+        Node left;
+        Node right;
+
+        Node(LocalDateTime start, LocalDateTime end, UUID id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.maxEnd = end;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void insert(LocalDateTime start, LocalDateTime end, UUID id) {
+        root = insert(root, new Node(start, end, id));
+        size++;
+    }
+
+    /**
+     * Removes the interval with the given key; returns false if it was absent.
+     */
+    boolean remove(LocalDateTime start, UUID id) {
+        int before = size;
+        root = remove(root, start, id);
+        return size < before;
+    }
+
+    /**
+     * Visits, in (start, id) order, every interval with {@code start < to} and
+     * {@code end > from}.
+     */
+    void overlapping(LocalDateTime from, LocalDateTime to, Consumer<UUID> visitor) {
+        overlapping(root, from, to, visitor);
+    }
+
+    private static void overlapping(Node node, LocalDateTime from, LocalDateTime to, Consumer<UUID> visitor) {
+        if (node == null || !node.maxEnd.isAfter(from)) {
+            return;
+        }
+        overlapping(node.left, from, to, visitor);
+        if (!node.start.isBefore(to)) {
+            // Everything to the right starts even later
+            return;
+        }
+        if (node.end.isAfter(from)) {
+            visitor.accept(node.id);
+        }
+        overlapping(node.right, from, to, visitor);
+    }
+
+    private static int compare(LocalDateTime start, UUID id, Node node) {
+        int byStart = start.compareTo(node.start);
+        return byStart != 0 ? byStart : id.compareTo(node.id);
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (compare(inserted.start, inserted.id, node) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node remove(Node node, LocalDateTime start, UUID id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        LocalDateTime maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+}
@@ -0,0 +1,22 @@
+-- Schema for the prod profile, where Hibernate validates instead of generating
+-- DDL. Idempotent, so it can run on every start; valid on H2 and PostgreSQL.
+create table if not exists events (
+    id uuid not null,
+    name varchar(255) not null,
+    normalized_name varchar(255) not null,
+    description varchar(255) not null,
+    start_date timestamp(6) not null,
+    end_date timestamp(6) not null,
+    location varchar(255) not null,
+    min_attendees integer,
+    max_attendees integer,
+    registered_attendees integer default 0 not null,
+    location_notes varchar(255),
+    preparation_notes varchar(255),
+    version bigint,
+    constraint pk_events primary key (id),
+    constraint uk_events_normalized_name unique (normalized_name)
+);
+
+create index if not exists idx_events_start_date_id on events (start_date, id);
+create index if not exists idx_events_end_date_id on events (end_date, id);
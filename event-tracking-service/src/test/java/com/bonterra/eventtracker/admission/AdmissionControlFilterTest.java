@@ -0,0 +1,135 @@
+package com.bonterra.eventtracker.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class AdmissionControlFilterTest {
+
+        private static final String BY_ID = "/api/events/" + UUID.randomUUID();
+        private static final String SEARCH = "/api/events/search";
+        private static final String LIST = "/api/events";
+
+        private final AtomicLong clock = new AtomicLong();
+
+        @Test
+        void testClassify_SeparatesBulkReadsFromLookupsAndWrites() {
+                assertEquals(Priority.BULK, AdmissionControlFilter.classify("GET", "/api/events"));
+                assertEquals(Priority.BULK, AdmissionControlFilter.classify("GET", "/api/events/archived"));
+                assertEquals(Priority.BULK, AdmissionControlFilter.classify("GET", "/api/events/export"));
+                assertEquals(Priority.BULK, AdmissionControlFilter.classify("POST", "/api/events/batch"));
+                assertEquals(Priority.NORMAL, AdmissionControlFilter.classify("GET", "/api/events/search"));
+                assertEquals(Priority.NORMAL, AdmissionControlFilter.classify("GET", "/api/events/stats"));
+                assertEquals(Priority.CRITICAL, AdmissionControlFilter.classify("GET", BY_ID));
+                assertEquals(Priority.CRITICAL, AdmissionControlFilter.classify("GET", BY_ID + "/registrations"));
+                assertEquals(Priority.CRITICAL, AdmissionControlFilter.classify("POST", "/api/events"));
+                assertEquals(Priority.CRITICAL, AdmissionControlFilter.classify("DELETE", BY_ID));
+                assertNull(AdmissionControlFilter.classify("GET", "/api/events/stream"));
+                assertNull(AdmissionControlFilter.classify("GET", "/actuator/health"));
+        }
+
+        @Test
+        void testDoFilter_BulkRequestsLeaveRoomForLookups() {
+                // A fixed limit of 8: bulk may hold 4 places, normal 7, critical all 8
+                AdmissionControlFilter filter = filter(new GradientLimit(8, 8, 8, 2.0, Duration.ofSeconds(30), 0));
+
+                List<Integer> statuses = new ArrayList<>();
+                holding(filter, List.of(LIST, LIST, LIST, LIST), () -> {
+                        statuses.add(call(filter, LIST, 1));
+                        statuses.add(call(filter, SEARCH, 1));
+                        statuses.add(call(filter, BY_ID, 1));
+                });
+                assertEquals(List.of(503, 200, 200), statuses);
+
+                statuses.clear();
+                holding(filter, List.of(LIST, LIST, LIST, LIST, SEARCH, SEARCH, SEARCH), () -> {
+                        statuses.add(call(filter, SEARCH, 1));
+                        statuses.add(call(filter, BY_ID, 1));
+                });
+                assertEquals(List.of(503, 200), statuses);
+
+                statuses.clear();
+                holding(filter, List.of(LIST, LIST, LIST, LIST, SEARCH, SEARCH, SEARCH, BY_ID), () -> {
+                        statuses.add(call(filter, BY_ID, 1));
+                });
+                assertEquals(List.of(503), statuses);
+
+                assertEquals(1, filter.shed(Priority.BULK));
+                assertEquals(1, filter.shed(Priority.NORMAL));
+                assertEquals(1, filter.shed(Priority.CRITICAL));
+        }
+
+        @Test
+        void testDoFilter_RisingLatencyShrinksTheLimit() {
+                AdmissionControlFilter filter = filter(new GradientLimit(50, 8, 200, 2.0, Duration.ofSeconds(30), 0));
+
+                assertEquals(200, call(filter, BY_ID, 1));
+                assertEquals(50, filter.limit());
+                // Ten times the baseline is far past the tolerance of two
+                for (int i = 0; i < 100; i++) {
+                        assertEquals(200, call(filter, BY_ID, 10));
+                }
+                assertEquals(8, filter.limit());
+
+                // Bulk requests now get half of 8
+                List<Integer> statuses = new ArrayList<>();
+                holding(filter, List.of(LIST, LIST, LIST, LIST), () -> statuses.add(call(filter, LIST, 1)));
+                assertEquals(List.of(503), statuses);
+        }
+
+        @Test
+        void testDoFilter_ServiceUnavailableCutsTheLimit() {
+                AdmissionControlFilter filter = filter(new GradientLimit(50, 8, 200, 2.0, Duration.ofSeconds(30), 0));
+
+                call(filter, BY_ID, (request, response) ->
+                                ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE));
+                assertEquals(45, filter.limit());
+        }
+
+        private AdmissionControlFilter filter(GradientLimit limit) {
+                return new AdmissionControlFilter(limit, JsonMapper.builder().build(), clock::get);
+        }
+
+        /**
+         * Admits each of {@code paths} in turn, nested inside the one before, so
+         * all of them are in flight while {@code inside} runs.
+         */
+        private void holding(AdmissionControlFilter filter, List<String> paths, Runnable inside) {
+                if (paths.isEmpty()) {
+                        inside.run();
+                        return;
+                }
+                int status = call(filter, paths.get(0), (request, response) ->
+                                holding(filter, paths.subList(1, paths.size()), inside));
+                assertEquals(200, status, paths.get(0) + " turned away");
+        }
+
+        // A request the simulated service answers after the given milliseconds on the fake clock
+        private int call(AdmissionControlFilter filter, String path, long millis) {
+                return call(filter, path, (request, response) -> clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis)));
+        }
+
+        private static int call(AdmissionControlFilter filter, String path, FilterChain service) {
+                MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                try {
+                        filter.doFilter(request, response, service);
+                } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                }
+                return response.getStatus();
+        }
+}
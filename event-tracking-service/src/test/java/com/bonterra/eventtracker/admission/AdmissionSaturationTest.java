@@ -0,0 +1,152 @@
+package com.bonterra.eventtracker.admission;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Saturates a simulated service on the wall clock and compares lookup p99
+ * with and without admission control. Timing-dependent and several seconds
+ * long, so it only runs through the {@code saturationTest} Gradle task;
+ * {@link AdmissionControlFilterTest} covers the same behaviour deterministically.
+ */
+@Tag("saturation")
+public class AdmissionSaturationTest {
+
+        private static final String BY_ID = "/api/events/" + UUID.randomUUID();
+        private static final int WORKERS = 4;
+        private static final int BULK_CLIENTS = 64;
+        private static final int CHEAP_CLIENTS = 2;
+
+        private record Outcome(double cheapP99Millis, long cheapShed, long bulkShed, int limit) {
+        }
+
+        @Test
+        void testSaturation_CheapRequestsKeepBoundedLatency(TestReporter reporter) throws Exception {
+                // With the limit pinned far above the offered load, every bulk
+                // request queues for a worker in front of the lookups
+                Outcome unlimited = saturate(new GradientLimit(1000, 1000, 1000, 2.0, Duration.ofSeconds(30),
+                                System.nanoTime()));
+                Outcome adaptive = saturate(new GradientLimit(50, 8, 200, 2.0, Duration.ofSeconds(30), System.nanoTime()));
+                reporter.publishEntry("lookup p99", String.format(
+                                "without admission control %.1f ms, with %.1f ms (limit %d)",
+                                unlimited.cheapP99Millis(), adaptive.cheapP99Millis(), adaptive.limit()));
+
+                assertEquals(0, unlimited.bulkShed());
+                assertTrue(adaptive.bulkShed() > 0);
+                assertEquals(0, adaptive.cheapShed());
+                assertTrue(adaptive.cheapP99Millis() * 2 < unlimited.cheapP99Millis(),
+                                "lookup p99 " + adaptive.cheapP99Millis() + " ms against "
+                                                + unlimited.cheapP99Millis() + " ms unprotected");
+        }
+
+        /**
+         * Runs many bulk clients and a few lookup clients against a service
+         * with {@value #WORKERS} workers, where a list page takes 5 ms of work
+         * and a lookup 1 ms. The first second lets the limit settle; lookups are
+         * measured over the two after it.
+         */
+        private static Outcome saturate(GradientLimit limit) throws Exception {
+                AdmissionControlFilter filter = new AdmissionControlFilter(limit, JsonMapper.builder().build(),
+                                System::nanoTime);
+                Semaphore workers = new Semaphore(WORKERS, true);
+                FilterChain service = (request, response) -> {
+                        long work = ((MockHttpServletRequest) request).getRequestURI().equals(BY_ID) ? 1 : 5;
+                        try {
+                                workers.acquire();
+                                try {
+                                        Thread.sleep(work);
+                                } finally {
+                                        workers.release();
+                                }
+                        } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new ServletException(e);
+                        }
+                };
+
+                // Idle requests first, so each class has a latency baseline
+                for (int i = 0; i < 20; i++) {
+                        call(filter, service, "/api/events");
+                        call(filter, service, BY_ID);
+                }
+
+                long start = System.nanoTime();
+                long measureFrom = start + TimeUnit.SECONDS.toNanos(1);
+                long end = start + TimeUnit.SECONDS.toNanos(3);
+                List<Long> cheapLatencies = Collections.synchronizedList(new ArrayList<>());
+                AtomicLong cheapShed = new AtomicLong();
+                List<Thread> clients = new ArrayList<>();
+                for (int i = 0; i < BULK_CLIENTS; i++) {
+                        clients.add(new Thread(() -> {
+                                while (System.nanoTime() < end) {
+                                        if (call(filter, service, "/api/events") == 503) {
+                                                pause();
+                                        }
+                                }
+                        }));
+                }
+                for (int i = 0; i < CHEAP_CLIENTS; i++) {
+                        clients.add(new Thread(() -> {
+                                while (System.nanoTime() < end) {
+                                        long started = System.nanoTime();
+                                        int status = call(filter, service, BY_ID);
+                                        if (started < measureFrom) {
+                                                continue;
+                                        }
+                                        if (status == 503) {
+                                                cheapShed.incrementAndGet();
+                                        } else {
+                                                cheapLatencies.add(System.nanoTime() - started);
+                                        }
+                                }
+                        }));
+                }
+                clients.forEach(Thread::start);
+                for (Thread client : clients) {
+                        client.join();
+                }
+
+                List<Long> sorted = new ArrayList<>(cheapLatencies);
+                Collections.sort(sorted);
+                long p99 = sorted.get((int) Math.ceil(0.99 * sorted.size()) - 1);
+                return new Outcome(p99 / 1e6, cheapShed.get(), filter.shed(Priority.BULK), filter.limit());
+        }
+
+        private static int call(AdmissionControlFilter filter, FilterChain service, String path) {
+                MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                try {
+                        filter.doFilter(request, response, service);
+                } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                }
+                return response.getStatus();
+        }
+
+        // A turned-away client backs off briefly instead of spinning
+        private static void pause() {
+                try {
+                        Thread.sleep(2);
+                } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                }
+        }
+}
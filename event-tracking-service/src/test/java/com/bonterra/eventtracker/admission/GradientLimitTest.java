@@ -0,0 +1,106 @@
+package com.bonterra.eventtracker.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GradientLimitTest {
+
+        private static final Duration WINDOW = Duration.ofSeconds(30);
+        private static final long ONE_MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+        @Test
+        void testOnSample_GrowsWhileLatencyStaysAtBaseline() {
+                GradientLimit limit = new GradientLimit(50, 8, 200, 2.0, WINDOW, 0);
+                for (int i = 0; i < 20; i++) {
+                        limit.onSample(Priority.CRITICAL, ONE_MS, limit.get(), 0);
+                }
+                assertTrue(limit.get() > 50, "limit " + limit.get());
+
+                for (int i = 0; i < 200; i++) {
+                        limit.onSample(Priority.CRITICAL, ONE_MS, limit.get(), 0);
+                }
+                assertEquals(200, limit.get());
+        }
+
+        @Test
+        void testOnSample_HoldsWhileMostOfTheLimitIsUnused() {
+                GradientLimit limit = new GradientLimit(50, 8, 200, 2.0, WINDOW, 0);
+                for (int i = 0; i < 100; i++) {
+                        limit.onSample(Priority.CRITICAL, ONE_MS, 1, 0);
+                }
+                assertEquals(50, limit.get());
+        }
+
+        @Test
+        void testOnSample_ShrinksToMinimumWhenLatencyPassesTolerance() {
+                GradientLimit limit = new GradientLimit(50, 8, 200, 2.0, WINDOW, 0);
+                limit.onSample(Priority.CRITICAL, ONE_MS, 50, 0);
+                for (int i = 0; i < 100; i++) {
+                        limit.onSample(Priority.CRITICAL, 10 * ONE_MS, limit.get(), 0);
+                }
+                assertEquals(8, limit.get());
+        }
+
+        @Test
+        void testOnSample_ComparesEachClassWithItsOwnBaseline() {
+                // Five times a lookup's latency is normal for a list page
+                GradientLimit bulk = new GradientLimit(50, 8, 200, 2.0, WINDOW, 0);
+                GradientLimit critical = new GradientLimit(50, 8, 200, 2.0, WINDOW, 0);
+                bulk.onSample(Priority.CRITICAL, ONE_MS, 50, 0);
+                critical.onSample(Priority.CRITICAL, ONE_MS, 50, 0);
+                for (int i = 0; i < 50; i++) {
+                        bulk.onSample(Priority.BULK, 5 * ONE_MS, bulk.get(), 0);
+                        critical.onSample(Priority.CRITICAL, 5 * ONE_MS, critical.get(), 0);
+                }
+                assertTrue(bulk.get() > 50, "bulk limit " + bulk.get());
+                assertTrue(critical.get() < 50, "critical limit " + critical.get());
+        }
+
+        @Test
+        void testOnSample_ForgetsBaselineAfterTwoWindows() {
+                long window = WINDOW.toNanos();
+                GradientLimit limit = new GradientLimit(50, 8, 200, 2.0, WINDOW, 0);
+                limit.onSample(Priority.CRITICAL, ONE_MS, 50, 0);
+                for (int i = 0; i < 100; i++) {
+                        limit.onSample(Priority.CRITICAL, 3 * ONE_MS, limit.get(), 0);
+                }
+                int congested = limit.get();
+                assertTrue(congested < 50, "limit " + congested);
+
+                // One window later the 1 ms minimum is still remembered
+                for (int i = 0; i < 100; i++) {
+                        limit.onSample(Priority.CRITICAL, 3 * ONE_MS, limit.get(), window);
+                }
+                assertTrue(limit.get() <= congested, "limit " + limit.get());
+
+                // After the second, 3 ms is the baseline and the limit recovers
+                for (int i = 0; i < 100; i++) {
+                        limit.onSample(Priority.CRITICAL, 3 * ONE_MS, limit.get(), 2 * window);
+                }
+                assertTrue(limit.get() > 50, "limit " + limit.get());
+        }
+
+        @Test
+        void testOnOverload_CutsByTenPercent() {
+                GradientLimit limit = new GradientLimit(50, 8, 200, 2.0, WINDOW, 0);
+                limit.onOverload();
+                assertEquals(45, limit.get());
+                for (int i = 0; i < 50; i++) {
+                        limit.onOverload();
+                }
+                assertEquals(8, limit.get());
+        }
+
+        @Test
+        void testAllowance_SharesTheLimitByPriority() {
+                assertEquals(8, Priority.CRITICAL.allowance(8));
+                assertEquals(7, Priority.NORMAL.allowance(8));
+                assertEquals(4, Priority.BULK.allowance(8));
+                assertEquals(1, Priority.BULK.allowance(1));
+        }
+}
@@ -0,0 +1,125 @@
+package com.bonterra.eventtracker.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.bonterra.eventtracker.entity.Event;
+import com.bonterra.eventtracker.repository.EventRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDateTime;
+
+import static com.bonterra.eventtracker.metrics.QueryCountAssertions.assertMaxQueries;
+import static com.bonterra.eventtracker.metrics.QueryCountAssertions.assertQueries;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Query budgets for the hot endpoints, so an accidental N+1 or extra lookup
+ * fails the build instead of showing up in production latency.
+ */
+@SpringBootTest
+public class EventControllerQueryCountTest {
+
+        @Autowired
+        private WebApplicationContext webApplicationContext;
+
+        @Autowired
+        private EventRepository eventRepository;
+
+        private MockMvc mockMvc;
+
+        @BeforeEach
+        void setUp() {
+                mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+                eventRepository.deleteAll();
+        }
+
+        @Test
+        void testCreateEvent_SingleInsert() throws Exception {
+                String eventJson = "{\"name\":\"New Event\",\"description\":\"New Description\"," +
+                                "\"startDate\":\"2025-12-01T09:00:00\",\"endDate\":\"2025-12-01T17:00:00\"," +
+                                "\"location\":\"New Location\"}";
+
+                assertMaxQueries(1, () -> mockMvc.perform(post("/api/events")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(eventJson))
+                                .andExpect(status().isCreated()));
+        }
+
+        // Every budget here also passes if nothing is counted, so pin one exact count
+        @Test
+        void testCreateEvent_CountsTheInsert() throws Exception {
+                String eventJson = "{\"name\":\"Counted Event\",\"description\":\"Description\"," +
+                                "\"startDate\":\"2025-12-01T09:00:00\",\"endDate\":\"2025-12-01T17:00:00\"," +
+                                "\"location\":\"Location\"}";
+
+                assertQueries(1, () -> mockMvc.perform(post("/api/events")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(eventJson))
+                                .andExpect(status().isCreated()));
+        }
+
+        @Test
+        void testGetEventById_ServedFromCacheAfterFirstRead() throws Exception {
+                Event saved = eventRepository.save(sampleEvent("Cached Event"));
+
+                assertMaxQueries(1, () -> mockMvc.perform(get("/api/events/{id}", saved.getId()))
+                                .andExpect(status().isOk()));
+                assertMaxQueries(0, () -> mockMvc.perform(get("/api/events/{id}", saved.getId()))
+                                .andExpect(status().isOk()));
+        }
+
+        @Test
+        void testGetAllEvents_SingleSelectPerPage() throws Exception {
+                for (int i = 0; i < 20; i++) {
+                        eventRepository.save(sampleEvent("Event " + i));
+                }
+
+                assertMaxQueries(1, () -> mockMvc.perform(get("/api/events").param("limit", "10"))
+                                .andExpect(status().isOk()));
+        }
+
+        @Test
+        void testUpdateEvent_SelectAndUpdate() throws Exception {
+                Event saved = eventRepository.save(sampleEvent("Original Event"));
+                String updateJson = "{\"name\":\"Updated Event\",\"description\":\"Updated\"," +
+                                "\"startDate\":\"2025-12-01T09:00:00\",\"endDate\":\"2025-12-01T17:00:00\"," +
+                                "\"location\":\"Location\"}";
+
+                assertMaxQueries(2, () -> mockMvc.perform(put("/api/events/{id}", saved.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(updateJson))
+                                .andExpect(status().isOk()));
+        }
+
+        @Test
+        void testPatchEvent_SingleUpdate() throws Exception {
+                Event saved = eventRepository.save(sampleEvent("Patched Event"));
+
+                assertMaxQueries(1, () -> mockMvc.perform(patch("/api/events/{id}", saved.getId())
+                                .contentType("application/merge-patch+json")
+                                .content("{\"preparationNotes\":\"Bring badges\"}"))
+                                .andExpect(status().isOk()));
+        }
+
+        @Test
+        void testDeleteEvent_SelectAndDelete() throws Exception {
+                Event saved = eventRepository.save(sampleEvent("Doomed Event"));
+
+                assertMaxQueries(2, () -> mockMvc.perform(delete("/api/events/{id}", saved.getId()))
+                                .andExpect(status().isNoContent()));
+        }
+
+        private static Event sampleEvent(String name) {
+                return new Event(name, "Description",
+                                LocalDateTime.of(2025, 12, 1, 9, 0),
+                                LocalDateTime.of(2025, 12, 1, 17, 0),
+                                "Location");
+        }
+}
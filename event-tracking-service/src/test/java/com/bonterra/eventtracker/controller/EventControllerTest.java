@@ -4,17 +4,35 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import com.bonterra.eventtracker.entity.Event;
 import com.bonterra.eventtracker.repository.EventRepository;
+import com.bonterra.eventtracker.service.EventChangeStream;
+import com.bonterra.eventtracker.service.EventRegistrations;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -27,6 +45,17 @@ public class EventControllerTest {
         @Autowired
         private EventRepository eventRepository;
 
+        @Autowired
+        private EventChangeStream eventChangeStream;
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @Autowired
+        private EventRegistrations eventRegistrations;
+
+        private static final String UUID_V7 = "^[0-9a-f]{8}-[0-9a-f]{4}-7[0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}$";
+
         private MockMvc mockMvc;
 
         @BeforeEach
@@ -65,6 +94,256 @@ public class EventControllerTest {
                                 .andExpect(jsonPath("$", hasSize(0)));
         }
 
+        @Test
+        void testGetAllEvents_PagesWithCursor() throws Exception {
+                for (int day = 1; day <= 5; day++) {
+                        eventRepository.save(new Event("Event " + day, "Description " + day,
+                                        LocalDateTime.of(2025, 12, day, 9, 0),
+                                        LocalDateTime.of(2025, 12, day, 17, 0),
+                                        "Location " + day));
+                }
+
+                MvcResult firstPage = mockMvc.perform(get("/api/events").param("limit", "2")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(2)))
+                                .andExpect(jsonPath("$[0].name").value("Event 1"))
+                                .andExpect(jsonPath("$[1].name").value("Event 2"))
+                                .andExpect(header().exists("X-Next-Cursor"))
+                                .andReturn();
+
+                MvcResult secondPage = mockMvc.perform(get("/api/events").param("limit", "2")
+                                .param("cursor", firstPage.getResponse().getHeader("X-Next-Cursor"))
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(2)))
+                                .andExpect(jsonPath("$[0].name").value("Event 3"))
+                                .andExpect(jsonPath("$[1].name").value("Event 4"))
+                                .andReturn();
+
+                mockMvc.perform(get("/api/events").param("limit", "2")
+                                .param("cursor", secondPage.getResponse().getHeader("X-Next-Cursor"))
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(1)))
+                                .andExpect(jsonPath("$[0].name").value("Event 5"))
+                                .andExpect(header().doesNotExist("X-Next-Cursor"));
+        }
+
+        @Test
+        void testGetAllEvents_RejectsInvalidCursorAndLimit() throws Exception {
+                mockMvc.perform(get("/api/events").param("cursor", "not-a-cursor")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isBadRequest());
+
+                mockMvc.perform(get("/api/events").param("limit", "0")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void testGetAllEvents_SummaryByDefaultAndSparseFieldsets() throws Exception {
+                Event event = new Event("Summary Event", "Long description",
+                                LocalDateTime.of(2025, 12, 1, 9, 0),
+                                LocalDateTime.of(2025, 12, 1, 17, 0),
+                                "Location 1");
+                event.setPreparationNotes("Bring the projector");
+                eventRepository.save(event);
+
+                mockMvc.perform(get("/api/events")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].name").value("Summary Event"))
+                                .andExpect(jsonPath("$[0].location").value("Location 1"))
+                                .andExpect(jsonPath("$[0].version").exists())
+                                .andExpect(jsonPath("$[0].description").doesNotExist())
+                                .andExpect(jsonPath("$[0].preparationNotes").doesNotExist());
+
+                mockMvc.perform(get("/api/events/archived").param("fields", "name,preparationNotes")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].id").exists())
+                                .andExpect(jsonPath("$[0].preparationNotes").value("Bring the projector"))
+                                .andExpect(jsonPath("$[0].location").doesNotExist());
+
+                mockMvc.perform(get("/api/events").param("fields", "*")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].description").value("Long description"));
+
+                mockMvc.perform(get("/api/events").param("fields", "name,secret")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void testGetActiveAndArchivedEvents() throws Exception {
+                LocalDateTime now = LocalDateTime.now();
+                eventRepository.save(new Event("Later Event", "Upcoming",
+                                now.plusDays(10), now.plusDays(11), "Location 1"));
+                eventRepository.save(new Event("Sooner Event", "Upcoming",
+                                now.plusDays(1), now.plusDays(2), "Location 2"));
+                eventRepository.save(new Event("Running Event", "In progress",
+                                now.minusDays(1), now.plusDays(1), "Location 3"));
+                eventRepository.save(new Event("Old Event", "Finished",
+                                now.minusDays(30), now.minusDays(29), "Location 4"));
+                eventRepository.save(new Event("Recent Event", "Finished",
+                                now.minusDays(3), now.minusDays(2), "Location 5"));
+
+                mockMvc.perform(get("/api/events/active")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(3)))
+                                .andExpect(jsonPath("$[0].name").value("Running Event"))
+                                .andExpect(jsonPath("$[1].name").value("Sooner Event"))
+                                .andExpect(jsonPath("$[2].name").value("Later Event"));
+
+                MvcResult firstPage = mockMvc.perform(get("/api/events/archived").param("limit", "1")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(1)))
+                                .andExpect(jsonPath("$[0].name").value("Recent Event"))
+                                .andReturn();
+
+                mockMvc.perform(get("/api/events/archived").param("limit", "1")
+                                .param("cursor", firstPage.getResponse().getHeader("X-Next-Cursor"))
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(1)))
+                                .andExpect(jsonPath("$[0].name").value("Old Event"))
+                                .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+                // The sort key is read for the cursor but only returned when asked for
+                MvcResult namesOnly = mockMvc.perform(get("/api/events/archived").param("limit", "1")
+                                .param("fields", "name")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].name").value("Recent Event"))
+                                .andExpect(jsonPath("$[0].endDate").doesNotExist())
+                                .andExpect(header().exists("X-Next-Cursor"))
+                                .andReturn();
+
+                mockMvc.perform(get("/api/events/archived").param("limit", "1").param("fields", "name")
+                                .param("cursor", namesOnly.getResponse().getHeader("X-Next-Cursor"))
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].name").value("Old Event"))
+                                .andExpect(jsonPath("$[0].endDate").doesNotExist());
+        }
+
+        @Test
+        void testSearchEvents_RanksAndTracksChanges() throws Exception {
+                eventRepository.save(new Event("Community Picnic", "Food and games for the conference crew",
+                                LocalDateTime.of(2025, 12, 1, 9, 0),
+                                LocalDateTime.of(2025, 12, 1, 17, 0),
+                                "City Park"));
+                Event conference = eventRepository.save(new Event("Tech Conference", "Annual summit",
+                                LocalDateTime.of(2025, 12, 5, 9, 0),
+                                LocalDateTime.of(2025, 12, 6, 17, 0),
+                                "Convention Center"));
+
+                mockMvc.perform(get("/api/events/search").param("q", "conf")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("X-Total-Count", "2"))
+                                .andExpect(jsonPath("$[0].name").value("Tech Conference"))
+                                .andExpect(jsonPath("$[1].name").value("Community Picnic"));
+
+                mockMvc.perform(get("/api/events/search").param("q", "tech conv")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(1)))
+                                .andExpect(jsonPath("$[0].name").value("Tech Conference"));
+
+                mockMvc.perform(delete("/api/events/{id}", conference.getId())
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isNoContent());
+
+                mockMvc.perform(get("/api/events/search").param("q", "conf")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(1)))
+                                .andExpect(jsonPath("$[0].name").value("Community Picnic"));
+        }
+
+        @Test
+        void testGetOverlappingEvents_AndRejectOverlap() throws Exception {
+                eventRepository.save(new Event("Morning Session", "Description",
+                                LocalDateTime.of(2025, 12, 1, 9, 0),
+                                LocalDateTime.of(2025, 12, 1, 12, 0),
+                                "Room A"));
+                eventRepository.save(new Event("Afternoon Session", "Description",
+                                LocalDateTime.of(2025, 12, 1, 13, 0),
+                                LocalDateTime.of(2025, 12, 1, 17, 0),
+                                "Room B"));
+
+                mockMvc.perform(get("/api/events/overlapping")
+                                .param("from", "2025-12-01T11:00:00")
+                                .param("to", "2025-12-01T14:00:00")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(2)))
+                                .andExpect(jsonPath("$[0].name").value("Morning Session"))
+                                .andExpect(jsonPath("$[1].name").value("Afternoon Session"));
+
+                mockMvc.perform(get("/api/events/overlapping")
+                                .param("from", "2025-12-01T11:00:00")
+                                .param("to", "2025-12-01T14:00:00")
+                                .param("location", "room b")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(1)))
+                                .andExpect(jsonPath("$[0].name").value("Afternoon Session"));
+
+                String clashingJson = "{\"name\":\"Clashing Session\",\"description\":\"Description\"," +
+                                "\"startDate\":\"2025-12-01T11:00:00\",\"endDate\":\"2025-12-01T12:30:00\"," +
+                                "\"location\":\"Room A\"}";
+                mockMvc.perform(post("/api/events").param("rejectOverlap", "true")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(clashingJson))
+                                .andExpect(status().isConflict());
+
+                // Without the flag the overlap check is skipped
+                mockMvc.perform(post("/api/events")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(clashingJson))
+                                .andExpect(status().isCreated());
+        }
+
+        @Test
+        void testRejectOverlap_ConcurrentBookingsForOneSlot() throws Exception {
+                int bookings = 16;
+                CountDownLatch start = new CountDownLatch(1);
+                List<Integer> statuses = Collections.synchronizedList(new ArrayList<>());
+                List<Thread> threads = new ArrayList<>();
+                for (int i = 0; i < bookings; i++) {
+                        String json = "{\"name\":\"Booking " + i + "\",\"description\":\"Description\"," +
+                                        "\"startDate\":\"2025-12-01T09:00:00\",\"endDate\":\"2025-12-01T12:00:00\"," +
+                                        "\"location\":\"Room A\"}";
+                        threads.add(new Thread(() -> {
+                                try {
+                                        start.await();
+                                        statuses.add(mockMvc.perform(post("/api/events").param("rejectOverlap", "true")
+                                                        .contentType(MediaType.APPLICATION_JSON)
+                                                        .content(json))
+                                                        .andReturn().getResponse().getStatus());
+                                } catch (Exception e) {
+                                        throw new IllegalStateException(e);
+                                }
+                        }));
+                }
+                threads.forEach(Thread::start);
+                start.countDown();
+                for (Thread thread : threads) {
+                        thread.join();
+                }
+
+                assertEquals(bookings, statuses.size());
+                assertEquals(1, Collections.frequency(statuses, 201));
+                assertEquals(bookings - 1, Collections.frequency(statuses, 409));
+                assertEquals(1, eventRepository.count());
+        }
+
         @Test
         void testGetEventById_Success() throws Exception {
                 Event event = new Event("Tech Summit", "Annual tech conference",
@@ -80,6 +359,175 @@ public class EventControllerTest {
                                 .andExpect(jsonPath("$.description").value("Annual tech conference"));
         }
 
+        @Test
+        void testGetEventById_ResolvesRandomUuidIds() throws Exception {
+                UUID legacyId = UUID.randomUUID();
+                jdbcTemplate.update("insert into events (id, name, normalized_name, description, start_date, "
+                                + "end_date, location, version) values (?, ?, ?, ?, ?, ?, ?, 0)",
+                                legacyId, "Legacy Event", "legacy event", "Created before v7 ids",
+                                LocalDateTime.of(2025, 12, 1, 9, 0), LocalDateTime.of(2025, 12, 1, 17, 0), "Hall");
+
+                mockMvc.perform(get("/api/events/{id}", legacyId)
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.id").value(legacyId.toString()))
+                                .andExpect(jsonPath("$.name").value("Legacy Event"));
+
+                mockMvc.perform(patch("/api/events/{id}", legacyId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"location\":\"Main Hall\"}"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.id").value(legacyId.toString()))
+                                .andExpect(jsonPath("$.location").value("Main Hall"));
+        }
+
+        @Test
+        void testGetEventById_CachedUntilUpdated() throws Exception {
+                Event savedEvent = eventRepository.save(new Event("Cached Event", "Original description",
+                                LocalDateTime.of(2025, 12, 15, 9, 0),
+                                LocalDateTime.of(2025, 12, 17, 17, 0),
+                                "Convention Center"));
+
+                for (int i = 0; i < 2; i++) {
+                        mockMvc.perform(get("/api/events/{id}", savedEvent.getId())
+                                        .contentType(MediaType.APPLICATION_JSON))
+                                        .andExpect(status().isOk())
+                                        .andExpect(jsonPath("$.description").value("Original description"));
+                }
+                mockMvc.perform(get("/api/events/cache/stats")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.events.hits").value(greaterThanOrEqualTo(1)));
+
+                String updateJson = "{\"name\":\"Cached Event\",\"description\":\"Updated description\"," +
+                                "\"startDate\":\"2025-12-15T09:00:00\",\"endDate\":\"2025-12-17T17:00:00\"," +
+                                "\"location\":\"Convention Center\"}";
+                mockMvc.perform(put("/api/events/{id}", savedEvent.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(updateJson))
+                                .andExpect(status().isOk());
+
+                mockMvc.perform(get("/api/events/{id}", savedEvent.getId())
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.description").value("Updated description"));
+                mockMvc.perform(get("/api/events").param("fields", "name,description")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(jsonPath("$[0].description").value("Updated description"));
+        }
+
+        @Test
+        void testGetEventById_ConditionalRequests() throws Exception {
+                Event savedEvent = eventRepository.save(new Event("Versioned Event", "Description",
+                                LocalDateTime.of(2025, 12, 15, 9, 0),
+                                LocalDateTime.of(2025, 12, 17, 17, 0),
+                                "Convention Center"));
+
+                String etag = mockMvc.perform(get("/api/events/{id}", savedEvent.getId())
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(header().exists("ETag"))
+                                .andReturn().getResponse().getHeader("ETag");
+
+                mockMvc.perform(get("/api/events/{id}", savedEvent.getId())
+                                .header("If-None-Match", etag)
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isNotModified());
+
+                String updateJson = "{\"name\":\"Versioned Event\",\"description\":\"Updated\"," +
+                                "\"startDate\":\"2025-12-15T09:00:00\",\"endDate\":\"2025-12-17T17:00:00\"," +
+                                "\"location\":\"Convention Center\"}";
+                String newEtag = mockMvc.perform(put("/api/events/{id}", savedEvent.getId())
+                                .header("If-Match", etag)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(updateJson))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getHeader("ETag");
+
+                mockMvc.perform(get("/api/events/{id}", savedEvent.getId())
+                                .header("If-None-Match", etag)
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("ETag", newEtag));
+
+                // Stale preconditions are rejected for both updates and deletes
+                mockMvc.perform(put("/api/events/{id}", savedEvent.getId())
+                                .header("If-Match", etag)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(updateJson))
+                                .andExpect(status().isPreconditionFailed());
+                mockMvc.perform(delete("/api/events/{id}", savedEvent.getId())
+                                .header("If-Match", etag)
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isPreconditionFailed());
+                mockMvc.perform(delete("/api/events/{id}", savedEvent.getId())
+                                .header("If-Match", newEtag)
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isNoContent());
+        }
+
+        @Test
+        void testConditionalRequests_IfMatchRejectsWeakTags() throws Exception {
+                Event savedEvent = eventRepository.save(new Event("Weakly Tagged Event", "Description",
+                                LocalDateTime.of(2025, 12, 15, 9, 0),
+                                LocalDateTime.of(2025, 12, 17, 17, 0),
+                                "Convention Center"));
+                String weakEtag = "W/\"" + savedEvent.getVersion() + "\"";
+
+                // If-None-Match compares weakly
+                mockMvc.perform(get("/api/events/{id}", savedEvent.getId())
+                                .header("If-None-Match", weakEtag)
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isNotModified());
+
+                // If-Match compares strongly, so the same tag fails every write
+                String updateJson = "{\"name\":\"Weakly Tagged Event\",\"description\":\"Updated\"," +
+                                "\"startDate\":\"2025-12-15T09:00:00\",\"endDate\":\"2025-12-17T17:00:00\"," +
+                                "\"location\":\"Convention Center\"}";
+                mockMvc.perform(put("/api/events/{id}", savedEvent.getId())
+                                .header("If-Match", weakEtag)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(updateJson))
+                                .andExpect(status().isPreconditionFailed());
+                mockMvc.perform(patch("/api/events/{id}", savedEvent.getId())
+                                .contentType("application/merge-patch+json")
+                                .header("If-Match", weakEtag)
+                                .content("{\"location\":\"Elsewhere\"}"))
+                                .andExpect(status().isPreconditionFailed());
+                mockMvc.perform(delete("/api/events/{id}", savedEvent.getId())
+                                .header("If-Match", weakEtag)
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isPreconditionFailed());
+                mockMvc.perform(delete("/api/events/{id}", savedEvent.getId())
+                                .header("If-Match", "\"" + savedEvent.getVersion() + "\"")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isNoContent());
+        }
+
+        @Test
+        void testGetAllEvents_ConditionalRequests() throws Exception {
+                String etag = mockMvc.perform(get("/api/events")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getHeader("ETag");
+
+                mockMvc.perform(get("/api/events")
+                                .header("If-None-Match", etag)
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isNotModified());
+
+                eventRepository.save(new Event("New Event", "Description",
+                                LocalDateTime.of(2025, 12, 15, 9, 0),
+                                LocalDateTime.of(2025, 12, 17, 17, 0),
+                                "Convention Center"));
+
+                mockMvc.perform(get("/api/events")
+                                .header("If-None-Match", etag)
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(1)));
+        }
+
         @Test
         void testGetEventById_NotFound() throws Exception {
                 mockMvc.perform(get("/api/events/{id}", "00000000-0000-0000-0000-000000000000")
@@ -97,6 +545,7 @@ public class EventControllerTest {
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(eventJson))
                                 .andExpect(status().isCreated())
+                                .andExpect(jsonPath("$.id").value(matchesPattern(UUID_V7)))
                                 .andExpect(jsonPath("$.name").value("New Event"))
                                 .andExpect(jsonPath("$.description").value("New description"));
         }
@@ -156,6 +605,63 @@ public class EventControllerTest {
                                 .andExpect(status().isBadRequest());
         }
 
+        @Test
+        void testCreateEvents_BatchReportsPerItemResults() throws Exception {
+                eventRepository.save(new Event("Existing Event", "Description",
+                                LocalDateTime.of(2025, 12, 1, 9, 0),
+                                LocalDateTime.of(2025, 12, 1, 17, 0),
+                                "Location"));
+
+                String batchJson = "[" +
+                                "{\"name\":\"Batch Event 1\",\"description\":\"d\"," +
+                                "\"startDate\":\"2025-12-01T10:00:00\",\"endDate\":\"2025-12-01T18:00:00\",\"location\":\"l\"}," +
+                                "{\"name\":\"existing event\",\"description\":\"d\"," +
+                                "\"startDate\":\"2025-12-01T10:00:00\",\"endDate\":\"2025-12-01T18:00:00\",\"location\":\"l\"}," +
+                                "{\"name\":\"BATCH EVENT 1\",\"description\":\"d\"," +
+                                "\"startDate\":\"2025-12-01T10:00:00\",\"endDate\":\"2025-12-01T18:00:00\",\"location\":\"l\"}," +
+                                "{\"name\":\"Backwards Event\",\"description\":\"d\"," +
+                                "\"startDate\":\"2025-12-02T10:00:00\",\"endDate\":\"2025-12-01T18:00:00\",\"location\":\"l\"}," +
+                                "{\"name\":\"Batch Event 2\",\"description\":\"d\"," +
+                                "\"startDate\":\"2025-12-03T10:00:00\",\"endDate\":\"2025-12-03T18:00:00\",\"location\":\"l\"}" +
+                                "]";
+
+                mockMvc.perform(post("/api/events/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(batchJson))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.received").value(5))
+                                .andExpect(jsonPath("$.created").value(2))
+                                .andExpect(jsonPath("$.rejected").value(3))
+                                .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+                                .andExpect(jsonPath("$.items[1].status").value("DUPLICATE"))
+                                .andExpect(jsonPath("$.items[2].status").value("DUPLICATE"))
+                                .andExpect(jsonPath("$.items[3].status").value("INVALID"))
+                                .andExpect(jsonPath("$.items[4].status").value("CREATED"));
+
+                mockMvc.perform(get("/api/events")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(jsonPath("$", hasSize(3)));
+        }
+
+        @Test
+        void testCreateEvents_BatchAcceptsNdjson() throws Exception {
+                String ndjson = "{\"name\":\"Stream Event 1\",\"description\":\"d\"," +
+                                "\"startDate\":\"2025-12-01T10:00:00\",\"endDate\":\"2025-12-01T18:00:00\",\"location\":\"l\"}\n" +
+                                "{not json}\n" +
+                                "\n" +
+                                "{\"name\":\"Stream Event 2\",\"description\":\"d\"," +
+                                "\"startDate\":\"2025-12-02T10:00:00\",\"endDate\":\"2025-12-02T18:00:00\",\"location\":\"l\"}\n";
+
+                mockMvc.perform(post("/api/events/batch")
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content(ndjson))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.received").value(3))
+                                .andExpect(jsonPath("$.created").value(2))
+                                .andExpect(jsonPath("$.items[1].status").value("INVALID"))
+                                .andExpect(jsonPath("$.items[2].id").exists());
+        }
+
         @Test
         void testUpdateEvent_Success() throws Exception {
                 Event event = new Event("Old Name", "Old description",
@@ -225,6 +731,26 @@ public class EventControllerTest {
                                 .andExpect(jsonPath("$.description").value("Updated description"));
         }
 
+        @Test
+        void testUpdateEvent_SucceedsWhenChangingOnlyNameCase() throws Exception {
+                Event event = new Event("Event Name", "Old description",
+                                LocalDateTime.of(2025, 12, 1, 9, 0),
+                                LocalDateTime.of(2025, 12, 1, 17, 0),
+                                "Old Location");
+                Event savedEvent = eventRepository.save(event);
+
+                String updateJson = "{\"name\":\"EVENT NAME\",\"description\":\"Updated description\"," +
+                                "\"startDate\":\"2025-12-01T09:00:00\",\"endDate\":\"2025-12-01T17:00:00\"," +
+                                "\"location\":\"Updated Location\"}";
+
+                mockMvc.perform(put("/api/events/{id}", savedEvent.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(updateJson))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.name").value("EVENT NAME"))
+                                .andExpect(jsonPath("$.normalizedName").doesNotExist());
+        }
+
         @Test
         void testUpdateEvent_FailsWhenUpdatingToExistingNameCaseInsensitive() throws Exception {
                 // Create two events
@@ -265,6 +791,77 @@ public class EventControllerTest {
                                 .andExpect(status().isNotFound());
         }
 
+        @Test
+        void testPatchEvent_WritesOnlySuppliedFields() throws Exception {
+                Event saved = eventRepository.save(new Event("Patched Event", "Description",
+                                LocalDateTime.of(2025, 12, 1, 9, 0),
+                                LocalDateTime.of(2025, 12, 1, 17, 0),
+                                "Location"));
+
+                mockMvc.perform(patch("/api/events/{id}", saved.getId())
+                                .contentType("application/merge-patch+json")
+                                .header("If-Match", "\"" + saved.getVersion() + "\"")
+                                .content("{\"preparationNotes\":\"Bring badges\",\"maxAttendees\":40}"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("ETag", "\"" + (saved.getVersion() + 1) + "\""))
+                                .andExpect(jsonPath("$.preparationNotes").value("Bring badges"))
+                                .andExpect(jsonPath("$.maxAttendees").value(40))
+                                .andExpect(jsonPath("$.name").value("Patched Event"))
+                                .andExpect(jsonPath("$.location").value("Location"))
+                                .andExpect(jsonPath("$.version").value(saved.getVersion() + 1));
+
+                mockMvc.perform(patch("/api/events/{id}", saved.getId())
+                                .contentType("application/merge-patch+json")
+                                .content("{\"maxAttendees\":null}"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.maxAttendees").doesNotExist())
+                                .andExpect(jsonPath("$.preparationNotes").value("Bring badges"));
+        }
+
+        @Test
+        void testPatchEvent_Rejections() throws Exception {
+                Event first = eventRepository.save(new Event("First Event", "Description",
+                                LocalDateTime.of(2025, 12, 1, 9, 0),
+                                LocalDateTime.of(2025, 12, 1, 17, 0),
+                                "Location"));
+                Event second = eventRepository.save(new Event("Second Event", "Description",
+                                LocalDateTime.of(2025, 12, 2, 9, 0),
+                                LocalDateTime.of(2025, 12, 2, 17, 0),
+                                "Location"));
+
+                mockMvc.perform(patch("/api/events/{id}", second.getId())
+                                .contentType("application/merge-patch+json")
+                                .content("{\"name\":\"FIRST EVENT\"}"))
+                                .andExpect(status().isConflict())
+                                .andExpect(jsonPath("$.message").value("An event with this name already exists"));
+
+                mockMvc.perform(patch("/api/events/{id}", second.getId())
+                                .contentType("application/merge-patch+json")
+                                .header("If-Match", "\"" + (second.getVersion() + 5) + "\"")
+                                .content("{\"location\":\"Elsewhere\"}"))
+                                .andExpect(status().isPreconditionFailed());
+
+                mockMvc.perform(patch("/api/events/{id}", second.getId())
+                                .contentType("application/merge-patch+json")
+                                .content("{\"startDate\":\"2025-12-03T09:00:00\"}"))
+                                .andExpect(status().isBadRequest());
+
+                mockMvc.perform(patch("/api/events/{id}", second.getId())
+                                .contentType("application/merge-patch+json")
+                                .content("{\"id\":\"" + first.getId() + "\"}"))
+                                .andExpect(status().isBadRequest());
+
+                mockMvc.perform(patch("/api/events/{id}", second.getId())
+                                .contentType("application/merge-patch+json")
+                                .content("{\"name\":null}"))
+                                .andExpect(status().isBadRequest());
+
+                mockMvc.perform(patch("/api/events/{id}", "00000000-0000-0000-0000-000000000000")
+                                .contentType("application/merge-patch+json")
+                                .content("{\"location\":\"Elsewhere\"}"))
+                                .andExpect(status().isNotFound());
+        }
+
         @Test
         void testDeleteEvent_Success() throws Exception {
                 Event event = new Event("Event to Delete", "Will be deleted",
@@ -288,4 +885,216 @@ public class EventControllerTest {
                                 .contentType(MediaType.APPLICATION_JSON))
                                 .andExpect(status().isNotFound());
         }
+
+        @Test
+        void testGetStatistics_TracksEveryWrite() throws Exception {
+                Event conference = new Event("Conference", "Upcoming",
+                                LocalDateTime.of(2030, 5, 1, 9, 0), LocalDateTime.of(2030, 5, 2, 17, 0), "Hall A");
+                conference.setMinAttendees(10);
+                conference.setMaxAttendees(100);
+                Event workshop = new Event("Workshop", "Upcoming",
+                                LocalDateTime.of(2030, 5, 20, 9, 0), LocalDateTime.of(2030, 5, 20, 17, 0), "Hall A");
+                workshop.setMaxAttendees(20);
+                Event meetup = new Event("Meetup", "Finished",
+                                LocalDateTime.of(2025, 3, 4, 18, 0), LocalDateTime.of(2025, 3, 4, 21, 0), "Hall B");
+                eventRepository.save(conference);
+                Event savedWorkshop = eventRepository.save(workshop);
+                eventRepository.save(meetup);
+
+                mockMvc.perform(get("/api/events/stats")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.total").value(3))
+                                .andExpect(jsonPath("$.active").value(2))
+                                .andExpect(jsonPath("$.archived").value(1))
+                                .andExpect(jsonPath("$.totalMinAttendees").value(10))
+                                .andExpect(jsonPath("$.totalMaxAttendees").value(120))
+                                .andExpect(jsonPath("$.byMonth['2025-03']").value(1))
+                                .andExpect(jsonPath("$.byMonth['2030-05']").value(2))
+                                .andExpect(jsonPath("$.byLocation['Hall A']").value(2))
+                                .andExpect(jsonPath("$.byLocation['Hall B']").value(1));
+
+                mockMvc.perform(patch("/api/events/{id}", savedWorkshop.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"location\":\"Hall B\",\"maxAttendees\":30}"))
+                                .andExpect(status().isOk());
+                mockMvc.perform(delete("/api/events/{id}", conference.getId())
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isNoContent());
+
+                mockMvc.perform(get("/api/events/stats")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.total").value(2))
+                                .andExpect(jsonPath("$.active").value(1))
+                                .andExpect(jsonPath("$.totalMinAttendees").value(0))
+                                .andExpect(jsonPath("$.totalMaxAttendees").value(30))
+                                .andExpect(jsonPath("$.byMonth['2030-05']").value(1))
+                                .andExpect(jsonPath("$.byLocation['Hall A']").doesNotExist())
+                                .andExpect(jsonPath("$.byLocation['Hall B']").value(2));
+        }
+
+        @Test
+        void testStreamChanges_PushesDeltas() throws Exception {
+                MvcResult stream = mockMvc.perform(get("/api/events/stream"))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                Event saved = eventRepository.save(new Event("Streamed Event", "Description",
+                                LocalDateTime.of(2025, 12, 1, 9, 0),
+                                LocalDateTime.of(2025, 12, 1, 17, 0),
+                                "Location"));
+                eventRepository.delete(saved);
+
+                String content = awaitContent(stream, "event:DELETED");
+                assertThat(content, containsString("event:ready"));
+                assertThat(content, containsString("event:CREATED"));
+                assertThat(content, containsString("\"name\":\"Streamed Event\""));
+                assertThat(content, containsString("\"id\":\"" + saved.getId() + "\""));
+        }
+
+        @Test
+        void testStreamChanges_ResumesFromLastEventId() throws Exception {
+                long before = eventChangeStream.lastSequence();
+                eventRepository.save(new Event("Seen Event", "Description",
+                                LocalDateTime.of(2025, 12, 1, 9, 0),
+                                LocalDateTime.of(2025, 12, 1, 17, 0),
+                                "Location"));
+                eventRepository.save(new Event("Missed Event", "Description",
+                                LocalDateTime.of(2025, 12, 2, 9, 0),
+                                LocalDateTime.of(2025, 12, 2, 17, 0),
+                                "Location"));
+
+                MvcResult stream = mockMvc.perform(get("/api/events/stream")
+                                .header("Last-Event-ID", String.valueOf(before + 1)))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                String content = awaitContent(stream, "Missed Event");
+                assertThat(content, containsString("id:" + (before + 2)));
+                assertThat(content, not(containsString("Seen Event")));
+        }
+
+        @Test
+        void testStreamChanges_ResetsWhenLastEventIdIsUnknown() throws Exception {
+                long future = eventChangeStream.lastSequence() + 1000;
+
+                MvcResult stream = mockMvc.perform(get("/api/events/stream")
+                                .header("Last-Event-ID", String.valueOf(future)))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                assertThat(awaitContent(stream, "event:reset"), containsString("event:reset"));
+        }
+
+        @Test
+        void testExportEvents_NdjsonAndCsv() throws Exception {
+                eventRepository.save(new Event("Export One", "Plain description",
+                                LocalDateTime.of(2025, 12, 1, 9, 0),
+                                LocalDateTime.of(2025, 12, 1, 17, 0),
+                                "Location 1"));
+                eventRepository.save(new Event("Export Two", "Has a comma, and \"quotes\"",
+                                LocalDateTime.of(2025, 12, 2, 9, 0),
+                                LocalDateTime.of(2025, 12, 2, 17, 0),
+                                "Location 2"));
+
+                MvcResult ndjson = mockMvc.perform(get("/api/events/export"))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+                String[] lines = mockMvc.perform(asyncDispatch(ndjson))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                                .andReturn().getResponse().getContentAsString().split("\n");
+                assertEquals(2, lines.length);
+                assertThat(lines[0], containsString("\"name\":\"Export One\""));
+                assertThat(lines[1], containsString("\"name\":\"Export Two\""));
+
+                MvcResult csv = mockMvc.perform(get("/api/events/export").param("format", "csv")
+                                .header("Accept-Encoding", "gzip"))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+                byte[] compressed = mockMvc.perform(asyncDispatch(csv))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("Content-Encoding", "gzip"))
+                                .andReturn().getResponse().getContentAsByteArray();
+                String[] rows = new String(new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes(),
+                                StandardCharsets.UTF_8).split("\r\n");
+                assertEquals(3, rows.length);
+                assertThat(rows[0], containsString("id,name,description,startDate"));
+                assertThat(rows[2], containsString("Export Two,\"Has a comma, and \"\"quotes\"\"\",2025-12-02T09:00"));
+
+                // A zero weight refuses gzip even when a wildcard would allow it
+                MvcResult refused = mockMvc.perform(get("/api/events/export").param("format", "csv")
+                                .header("Accept-Encoding", "gzip;q=0, *;q=0.5"))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+                mockMvc.perform(asyncDispatch(refused))
+                                .andExpect(status().isOk())
+                                .andExpect(header().doesNotExist("Content-Encoding"))
+                                .andExpect(content().string(containsString("Export One")));
+
+                mockMvc.perform(get("/api/events/export").param("format", "xml"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void testRegistrations_AdmitUpToMaxAttendees() throws Exception {
+                Event event = new Event("Small Workshop", "Two seats",
+                                LocalDateTime.of(2030, 6, 1, 9, 0), LocalDateTime.of(2030, 6, 1, 12, 0), "Room 1");
+                event.setMaxAttendees(2);
+                Event saved = eventRepository.save(event);
+
+                for (int registered = 1; registered <= 2; registered++) {
+                        mockMvc.perform(post("/api/events/{id}/registrations", saved.getId()))
+                                        .andExpect(status().isOk())
+                                        .andExpect(jsonPath("$.registered").value(registered))
+                                        .andExpect(jsonPath("$.capacity").value(2));
+                }
+                mockMvc.perform(post("/api/events/{id}/registrations", saved.getId()))
+                                .andExpect(status().isConflict())
+                                .andExpect(jsonPath("$.message").value("Event is full"));
+
+                mockMvc.perform(delete("/api/events/{id}/registrations", saved.getId()))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.registered").value(1));
+                mockMvc.perform(get("/api/events/{id}/registrations", saved.getId()))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.registered").value(1));
+
+                // The flushed count is a change to the event like any other
+                eventRegistrations.flush();
+                mockMvc.perform(get("/api/events/{id}", saved.getId()))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.registeredAttendees").value(1))
+                                .andExpect(header().string("ETag", not("\"" + saved.getVersion() + "\"")));
+        }
+
+        @Test
+        void testRegistrations_NotFoundAndNothingToCancel() throws Exception {
+                mockMvc.perform(post("/api/events/{id}/registrations", UUID.randomUUID()))
+                                .andExpect(status().isNotFound());
+                mockMvc.perform(get("/api/events/{id}/registrations", UUID.randomUUID()))
+                                .andExpect(status().isNotFound());
+
+                Event saved = eventRepository.save(new Event("Open Day", "No limit",
+                                LocalDateTime.of(2030, 7, 1, 9, 0), LocalDateTime.of(2030, 7, 1, 17, 0), "Lobby"));
+                mockMvc.perform(delete("/api/events/{id}/registrations", saved.getId()))
+                                .andExpect(status().isConflict())
+                                .andExpect(jsonPath("$.message").value("Event has no registrations to cancel"));
+                mockMvc.perform(post("/api/events/{id}/registrations", saved.getId()))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.registered").value(1))
+                                .andExpect(jsonPath("$.capacity").doesNotExist());
+        }
+
+        // Deltas are written by the stream's sender threads, so poll for them
+        private static String awaitContent(MvcResult result, String expected) throws Exception {
+                long deadline = System.currentTimeMillis() + 5000;
+                String content = result.getResponse().getContentAsString();
+                while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+                        Thread.sleep(20);
+                        content = result.getResponse().getContentAsString();
+                }
+                return content;
+        }
 }
@@ -0,0 +1,79 @@
+package com.bonterra.eventtracker.controller;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Exports millions of rows from a file-backed H2 database. Run through the
+ * {@code memoryTest} Gradle task, whose small heap is far below what the table
+ * would take as entities: the test only passes if the export streams.
+ */
+@Tag("memory")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+                "spring.datasource.url=jdbc:h2:file:${java.io.tmpdir}/event-export-memory-test;CACHE_SIZE=8192",
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN"
+})
+public class EventExportMemoryTest {
+
+        private static final int SEED_CHUNK = 100_000;
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @Autowired
+        private Environment environment;
+
+        @Test
+        void testExport_StreamsMillionsOfRowsInSmallHeap() throws Exception {
+                long rows = Long.getLong("export.rows", 2_000_000L);
+                // Straight SQL keeps the seed itself out of the heap and out of the
+                // in-memory indexes
+                for (long first = 1; first <= rows; first += SEED_CHUNK) {
+                        jdbcTemplate.update("insert into events (id, name, normalized_name, description, "
+                                        + "start_date, end_date, location, version) "
+                                        + "select random_uuid(), 'Event ' || x, 'event ' || x, "
+                                        + "'Exported event number ' || x, "
+                                        + "dateadd(minute, x, timestamp '2020-01-01 00:00:00'), "
+                                        + "dateadd(minute, x + 60, timestamp '2020-01-01 00:00:00'), "
+                                        + "'Hall ' || mod(x, 50), 0 "
+                                        + "from system_range(?, ?)",
+                                        first, Math.min(first + SEED_CHUNK - 1, rows));
+                }
+
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:"
+                                + environment.getProperty("local.server.port") + "/api/events/export"))
+                                .header("Accept-Encoding", "gzip")
+                                .build();
+                HttpResponse<InputStream> response = HttpClient.newHttpClient()
+                                .send(request, HttpResponse.BodyHandlers.ofInputStream());
+                assertEquals(200, response.statusCode());
+                assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+
+                long lines = 0;
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                                new GZIPInputStream(response.body()), StandardCharsets.UTF_8))) {
+                        while (reader.readLine() != null) {
+                                lines++;
+                        }
+                }
+                assertEquals(rows, lines);
+        }
+}
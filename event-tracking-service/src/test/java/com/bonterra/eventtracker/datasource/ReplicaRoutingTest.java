@@ -0,0 +1,191 @@
+package com.bonterra.eventtracker.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.bonterra.eventtracker.entity.Event;
+import com.bonterra.eventtracker.repository.EventRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import jakarta.servlet.http.Cookie;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and a replica. Nothing
+ * replicates between them, so each read shows which one served it.
+ */
+@SpringBootTest(properties = {
+                "spring.datasource.url=jdbc:h2:mem:routing-primary",
+                "eventtracker.datasource.replicas.enabled=true",
+                "eventtracker.datasource.replicas.urls=" + ReplicaRoutingTest.REPLICA_URL,
+                "eventtracker.datasource.replicas.health-check-interval=1h",
+                "eventtracker.datasource.replicas.max-lag=10s",
+                "eventtracker.datasource.replicas.lag-query=select lag_seconds from replica_status"
+})
+public class ReplicaRoutingTest {
+
+        static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+        private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+        // The replica's schema has to exist before the context starts routing to it
+        static {
+                replica.execute("create table if not exists events (id uuid primary key, name varchar(255) not null, "
+                                + "normalized_name varchar(255) not null, description varchar(255) not null, "
+                                + "start_date timestamp not null, end_date timestamp not null, "
+                                + "location varchar(255) not null, min_attendees integer, max_attendees integer, "
+                                + "registered_attendees integer default 0 not null, "
+                                + "location_notes varchar(255), preparation_notes varchar(255), "
+                                + "version bigint)");
+                replica.execute("create table if not exists replica_status (lag_seconds double precision)");
+        }
+
+        @Autowired
+        private WebApplicationContext webApplicationContext;
+
+        @Autowired
+        private EventRepository eventRepository;
+
+        @Autowired
+        private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+        @Autowired
+        private ReadYourWritesFilter readYourWritesFilter;
+
+        private MockMvc mockMvc;
+
+        @BeforeEach
+        void setUp() {
+                mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                                .addFilters(readYourWritesFilter)
+                                .build();
+                eventRepository.deleteAll();
+                replica.update("delete from events");
+                replica.update("delete from replica_status");
+                replica.update("insert into replica_status values (0)");
+                replicaRoutingDataSource.checkReplicas();
+        }
+
+        @Test
+        void testReadOnlyRequests_GoToReplica() throws Exception {
+                eventRepository.save(new Event("Primary Event", "Only on the primary",
+                                LocalDateTime.of(2030, 5, 1, 9, 0), LocalDateTime.of(2030, 5, 1, 17, 0), "Hall 1"));
+                insertIntoReplica("Replica Event");
+
+                mockMvc.perform(get("/api/events/active")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(1)))
+                                .andExpect(jsonPath("$[0].name").value("Replica Event"));
+        }
+
+        @Test
+        void testWrites_PinTheClientToThePrimary() throws Exception {
+                String eventJson = "{\"name\":\"New Event\",\"description\":\"Just created\"," +
+                                "\"startDate\":\"2030-06-01T09:00:00\",\"endDate\":\"2030-06-01T17:00:00\"," +
+                                "\"location\":\"Hall 2\"}";
+
+                MvcResult created = mockMvc.perform(post("/api/events")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(eventJson))
+                                .andExpect(status().isCreated())
+                                .andReturn();
+                Cookie pin = created.getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+                assertNotNull(pin);
+
+                mockMvc.perform(get("/api/events/active").cookie(pin)
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(1)))
+                                .andExpect(jsonPath("$[0].name").value("New Event"));
+
+                // Other clients still read the replica, which has not caught up
+                mockMvc.perform(get("/api/events/active")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(0)));
+        }
+
+        @Test
+        void testLaggingReplica_FallsBackToPrimary() throws Exception {
+                eventRepository.save(new Event("Primary Event", "Only on the primary",
+                                LocalDateTime.of(2030, 5, 1, 9, 0), LocalDateTime.of(2030, 5, 1, 17, 0), "Hall 1"));
+                insertIntoReplica("Replica Event");
+
+                replica.update("update replica_status set lag_seconds = 60");
+                replicaRoutingDataSource.checkReplicas();
+
+                mockMvc.perform(get("/api/events/active")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].name").value("Primary Event"));
+
+                replica.update("update replica_status set lag_seconds = 1");
+                replicaRoutingDataSource.checkReplicas();
+
+                mockMvc.perform(get("/api/events/active")
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].name").value("Replica Event"));
+        }
+
+        @Test
+        void testCachedReads_NeverFilledFromALaggingReplica() throws Exception {
+                Event event = eventRepository.save(new Event("Original Name", "Replicated before the rename",
+                                LocalDateTime.of(2030, 5, 1, 9, 0), LocalDateTime.of(2030, 5, 1, 17, 0), "Hall 1"));
+                replica.update("insert into events (id, name, normalized_name, description, start_date, end_date, "
+                                + "location, version) values (?, ?, ?, ?, ?, ?, ?, 0)",
+                                event.getId(), "Original Name", Event.normalizeName("Original Name"),
+                                "Replicated before the rename", event.getStartDate(), event.getEndDate(), "Hall 1");
+                String renameJson = "{\"name\":\"New Name\",\"description\":\"Renamed\"," +
+                                "\"startDate\":\"2030-05-01T09:00:00\",\"endDate\":\"2030-05-01T17:00:00\"," +
+                                "\"location\":\"Hall 1\"}";
+
+                MvcResult renamed = mockMvc.perform(put("/api/events/{id}", event.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(renameJson))
+                                .andExpect(status().isOk())
+                                .andReturn();
+                Cookie pin = renamed.getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+
+                // A client without the cookie fills the cache first; the writer
+                // must not then be served the replica's row from it
+                mockMvc.perform(get("/api/events/{id}", event.getId()))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.name").value("New Name"));
+                mockMvc.perform(get("/api/events/{id}", event.getId()).cookie(pin))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.name").value("New Name"));
+
+                mockMvc.perform(get("/api/events"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(1)))
+                                .andExpect(jsonPath("$[0].name").value("New Name"));
+                mockMvc.perform(get("/api/events").cookie(pin))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].name").value("New Name"));
+        }
+
+        private static void insertIntoReplica(String name) {
+                replica.update("insert into events (id, name, normalized_name, description, start_date, end_date, "
+                                + "location, version) values (?, ?, ?, ?, ?, ?, ?, 0)",
+                                UUID.randomUUID(), name, Event.normalizeName(name), "Only on the replica",
+                                LocalDateTime.of(2030, 5, 2, 9, 0), LocalDateTime.of(2030, 5, 2, 17, 0), "Hall 3");
+        }
+}
@@ -0,0 +1,123 @@
+package com.bonterra.eventtracker.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UuidV7Test {
+
+        private static final long NOW = Instant.parse("2026-03-01T12:00:00Z").toEpochMilli();
+
+        @Test
+        void testGenerate_SetsVersionVariantAndTimestamp() {
+                UUID id = new UuidV7(Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC)).generate();
+
+                assertEquals(7, id.version());
+                assertEquals(2, id.variant());
+                assertEquals(NOW, UuidV7.timestamp(id));
+        }
+
+        @Test
+        void testGenerate_StrictlyIncreasesWithinOneMillisecond() {
+                UuidV7 generator = new UuidV7(Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC));
+
+                // Enough ids to exhaust the 12-bit counter several times over
+                UUID previous = generator.generate();
+                for (int i = 0; i < 20_000; i++) {
+                        UUID next = generator.generate();
+                        assertTrue(previous.compareTo(next) < 0, previous + " should sort before " + next);
+                        previous = next;
+                }
+                assertTrue(UuidV7.timestamp(previous) > NOW);
+        }
+
+        @Test
+        void testGenerate_StaysMonotonicWhenClockMovesBack() {
+                AtomicLong millis = new AtomicLong(NOW);
+                UuidV7 generator = new UuidV7(new Clock() {
+                        @Override
+                        public ZoneOffset getZone() {
+                                return ZoneOffset.UTC;
+                        }
+
+                        @Override
+                        public Clock withZone(ZoneId zone) {
+                                return this;
+                        }
+
+                        @Override
+                        public Instant instant() {
+                                return Instant.ofEpochMilli(millis.get());
+                        }
+                });
+
+                UUID before = generator.generate();
+                millis.addAndGet(-5_000);
+                UUID after = generator.generate();
+
+                assertTrue(before.compareTo(after) < 0);
+                assertEquals(NOW, UuidV7.timestamp(after));
+        }
+
+        @Test
+        void testGenerate_UniqueAndOrderedPerThreadUnderContention() throws Exception {
+                UuidV7 generator = new UuidV7(Clock.systemUTC());
+                int threads = 8;
+                int perThread = 20_000;
+                Set<UUID> all = ConcurrentHashMap.newKeySet();
+                List<Thread> workers = new ArrayList<>();
+                List<Throwable> failures = new ArrayList<>();
+                CountDownLatch start = new CountDownLatch(1);
+
+                for (int t = 0; t < threads; t++) {
+                        Thread worker = new Thread(() -> {
+                                try {
+                                        start.await();
+                                        UUID previous = null;
+                                        for (int i = 0; i < perThread; i++) {
+                                                UUID id = generator.generate();
+                                                if (previous != null && previous.compareTo(id) >= 0) {
+                                                        throw new AssertionError(previous + " >= " + id);
+                                                }
+                                                all.add(id);
+                                                previous = id;
+                                        }
+                                } catch (Throwable e) {
+                                        synchronized (failures) {
+                                                failures.add(e);
+                                        }
+                                }
+                        });
+                        workers.add(worker);
+                        worker.start();
+                }
+                start.countDown();
+                for (Thread worker : workers) {
+                        worker.join();
+                }
+
+                assertEquals(List.of(), failures);
+                assertEquals(threads * perThread, all.size());
+        }
+
+        @Test
+        void testTimestamp_RejectsRandomUuids() {
+                UUID random = UUID.randomUUID();
+
+                assertThrows(IllegalArgumentException.class, () -> UuidV7.timestamp(random));
+        }
+}
@@ -0,0 +1,36 @@
+package com.bonterra.eventtracker.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards endpoint query budgets: runs an action on the current thread and fails
+ * if it issued more SQL statements than allowed, or not exactly the expected
+ * number.
+ */
+public final class QueryCountAssertions {
+
+        @FunctionalInterface
+        public interface Action {
+                void run() throws Exception;
+        }
+
+        private QueryCountAssertions() {
+        }
+
+        public static void assertQueries(int expected, Action action) throws Exception {
+                QueryCounter.reset();
+                action.run();
+                int count = QueryCounter.get();
+                assertEquals(expected, count,
+                                () -> "Expected " + expected + " SQL statements but " + count + " were issued");
+        }
+
+        public static void assertMaxQueries(int max, Action action) throws Exception {
+                QueryCounter.reset();
+                action.run();
+                int count = QueryCounter.get();
+                assertTrue(count <= max,
+                                () -> "Expected at most " + max + " SQL statements but " + count + " were issued");
+        }
+}
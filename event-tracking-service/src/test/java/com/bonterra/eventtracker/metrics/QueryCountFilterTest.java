@@ -0,0 +1,93 @@
+package com.bonterra.eventtracker.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.bonterra.eventtracker.entity.Event;
+import com.bonterra.eventtracker.repository.EventRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "eventtracker.metrics.query-count-header=true")
+public class QueryCountFilterTest {
+
+        @Autowired
+        private WebApplicationContext webApplicationContext;
+
+        @Autowired
+        private EventRepository eventRepository;
+
+        @Autowired
+        private QueryCountFilter queryCountFilter;
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+
+        private MockMvc mockMvc;
+
+        @BeforeEach
+        void setUp() {
+                mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                                .addFilters(queryCountFilter)
+                                .build();
+                eventRepository.deleteAll();
+        }
+
+        @Test
+        void testQueryCount_HeaderAndMeterPerEndpoint() throws Exception {
+                Event saved = eventRepository.save(new Event("Counted Event", "Description",
+                                LocalDateTime.of(2025, 12, 1, 9, 0),
+                                LocalDateTime.of(2025, 12, 1, 17, 0),
+                                "Location"));
+                DistributionSummary creates = summary("POST", "/api/events");
+                DistributionSummary reads = summary("GET", "/api/events/{id}");
+                long createsBefore = creates.count();
+                double statementsBefore = creates.totalAmount();
+                long readsBefore = reads.count();
+                String eventJson = "{\"name\":\"New Event\",\"description\":\"Description\"," +
+                                "\"startDate\":\"2025-12-01T09:00:00\",\"endDate\":\"2025-12-01T17:00:00\"," +
+                                "\"location\":\"Location\"}";
+
+                mockMvc.perform(post("/api/events")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(eventJson))
+                                .andExpect(status().isCreated())
+                                .andExpect(header().string(QueryCountFilter.QUERY_COUNT_HEADER, "1"));
+
+                mockMvc.perform(get("/api/events/{id}", saved.getId()))
+                                .andExpect(status().isOk())
+                                .andExpect(header().exists(QueryCountFilter.QUERY_COUNT_HEADER));
+                // The second read is served from the cache
+                mockMvc.perform(get("/api/events/{id}", saved.getId()))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string(QueryCountFilter.QUERY_COUNT_HEADER, "0"));
+
+                assertEquals(createsBefore + 1, creates.count());
+                assertEquals(statementsBefore + 1, creates.totalAmount());
+                assertEquals(readsBefore + 2, reads.count());
+        }
+
+        // Registers the meter if no request has recorded to it yet, so counts can
+        // be compared before and after
+        private DistributionSummary summary(String method, String uri) {
+                return DistributionSummary.builder("http.server.requests.sql.statements")
+                                .description("SQL statements issued per request")
+                                .tag("method", method)
+                                .tag("uri", uri)
+                                .publishPercentiles(0.5, 0.95, 0.99)
+                                .register(meterRegistry);
+        }
+}
@@ -0,0 +1,125 @@
+package com.bonterra.eventtracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CapacityCounterTest {
+
+        @Test
+        void testTryRegister_StopsAtCapacity() {
+                CapacityCounter counter = new CapacityCounter(8, 5, 0);
+                for (int i = 0; i < 5; i++) {
+                        assertTrue(counter.tryRegister());
+                }
+                assertFalse(counter.tryRegister());
+                assertEquals(5, counter.registered());
+
+                assertTrue(counter.tryCancel());
+                assertTrue(counter.tryRegister());
+                assertFalse(counter.tryRegister());
+        }
+
+        @Test
+        void testTryCancel_FailsWhenNobodyIsRegistered() {
+                CapacityCounter counter = new CapacityCounter(4, 3, 0);
+                assertFalse(counter.tryCancel());
+                assertTrue(counter.tryRegister());
+                assertTrue(counter.tryCancel());
+                assertFalse(counter.tryCancel());
+                assertEquals(0, counter.registered());
+        }
+
+        @Test
+        void testResize_LoweredBelowRegisteredHoldsPlacesUntilPaidOff() {
+                CapacityCounter counter = new CapacityCounter(8, 10, 0);
+                for (int i = 0; i < 10; i++) {
+                        assertTrue(counter.tryRegister());
+                }
+                counter.resize(7);
+                assertEquals(7, counter.capacity());
+
+                // Three cancellations only bring the event back down to its capacity
+                for (int i = 0; i < 3; i++) {
+                        assertTrue(counter.tryCancel());
+                        assertFalse(counter.tryRegister());
+                }
+                assertTrue(counter.tryCancel());
+                assertTrue(counter.tryRegister());
+                assertFalse(counter.tryRegister());
+                assertEquals(7, counter.registered());
+        }
+
+        @Test
+        void testResize_RaisedCapacityOpensPlaces() {
+                CapacityCounter counter = new CapacityCounter(8, 12, 15);
+                assertFalse(counter.tryRegister());
+                counter.resize(20);
+                for (int i = 0; i < 5; i++) {
+                        assertTrue(counter.tryRegister());
+                }
+                assertFalse(counter.tryRegister());
+                assertEquals(20, counter.registered());
+        }
+
+        @Test
+        void testResize_RacingCancellationsCannotOversell() throws Exception {
+                ExecutorService threads = Executors.newFixedThreadPool(5);
+                try {
+                        for (int round = 0; round < 5000; round++) {
+                                CapacityCounter counter = new CapacityCounter(64, 1024, 1024);
+                                CountDownLatch start = new CountDownLatch(1);
+                                List<Future<?>> tasks = new ArrayList<>();
+                                for (int t = 0; t < 4; t++) {
+                                        tasks.add(threads.submit(() -> {
+                                                start.await();
+                                                for (int i = 0; i < 256; i++) {
+                                                        assertTrue(counter.tryCancel());
+                                                }
+                                                return null;
+                                        }));
+                                }
+                                tasks.add(threads.submit(() -> {
+                                        start.await();
+                                        counter.resize(64);
+                                        return null;
+                                }));
+                                start.countDown();
+                                for (Future<?> task : tasks) {
+                                        task.get(5, TimeUnit.SECONDS);
+                                }
+
+                                // Everyone cancelled, so exactly the new capacity can register
+                                while (counter.tryRegister()) {
+                                }
+                                assertEquals(64, counter.registered(), "round " + round);
+                        }
+                } finally {
+                        threads.shutdownNow();
+                }
+        }
+
+        @Test
+        void testNullCapacity_IsUnlimited() {
+                CapacityCounter counter = new CapacityCounter(4, null, 3);
+                for (int i = 0; i < 10_000; i++) {
+                        assertTrue(counter.tryRegister());
+                }
+                assertEquals(10_003, counter.registered());
+
+                counter.resize(10_000);
+                assertFalse(counter.tryRegister());
+                counter.resize(null);
+                assertTrue(counter.tryRegister());
+        }
+}
@@ -0,0 +1,118 @@
+package com.bonterra.eventtracker.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.bonterra.eventtracker.entity.Event;
+import com.bonterra.eventtracker.entity.EventChange;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EventChangeStreamTest {
+
+        private EventChangeStream stream;
+
+        private SimpleMeterRegistry registry;
+
+        @BeforeEach
+        void setUp() {
+                // A single sender thread, so a blocked send would starve everyone else
+                stream = new EventChangeStream(1024, 256, Duration.ofMinutes(30), 1, Duration.ofMillis(200));
+                registry = new SimpleMeterRegistry();
+                stream.bindTo(registry);
+        }
+
+        @AfterEach
+        void tearDown() {
+                stream.shutdown();
+        }
+
+        @Test
+        void testStalledSubscriber_DoesNotBlockHealthyOnes() throws Exception {
+                StalledEmitter stalled = new StalledEmitter();
+                stream.subscribe(null, stalled);
+                assertTrue(stalled.sending.await(5, TimeUnit.SECONDS));
+
+                CountingEmitter healthy = new CountingEmitter();
+                stream.subscribe(null, healthy);
+                assertTrue(healthy.sent.tryAcquire(5, TimeUnit.SECONDS), "ready marker not delivered");
+                for (int i = 0; i < 3; i++) {
+                        stream.onChange(new EventChange(EventChange.Type.CREATED, UUID.randomUUID(), event(i)));
+                        assertTrue(healthy.sent.tryAcquire(5, TimeUnit.SECONDS), "delta " + i + " not delivered");
+                }
+
+                // The stalled subscriber is dropped once its send outlives the timeout
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (registry.get("eventtracker.stream.subscribers").gauge().value() != 1
+                                && System.nanoTime() < deadline) {
+                        Thread.sleep(10);
+                }
+                assertEquals(1.0, registry.get("eventtracker.stream.subscribers").gauge().value());
+                assertEquals(1.0, registry.get("eventtracker.stream.dropped").functionCounter().count());
+
+                // and completed as soon as the blocked write returns
+                stalled.release.countDown();
+                assertTrue(stalled.completed.await(5, TimeUnit.SECONDS));
+                assertEquals(1, stalled.sends);
+                assertEquals(0, healthy.completions);
+        }
+
+        private static Event event(int day) {
+                LocalDateTime start = LocalDateTime.of(2026, 1, 1, 9, 0).plusDays(day);
+                return new Event("Streamed Event " + day, "Description", start, start.plusHours(8), "Location");
+        }
+
+        // Blocks its first send the way a write to a client that stopped reading does
+        private static class StalledEmitter extends SseEmitter {
+
+                final CountDownLatch sending = new CountDownLatch(1);
+                final CountDownLatch release = new CountDownLatch(1);
+                final CountDownLatch completed = new CountDownLatch(1);
+                volatile int sends;
+
+                @Override
+                public void send(SseEventBuilder builder) throws IOException {
+                        sends++;
+                        sending.countDown();
+                        try {
+                                release.await();
+                        } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new IOException(e);
+                        }
+                }
+
+                @Override
+                public void complete() {
+                        completed.countDown();
+                }
+        }
+
+        private static class CountingEmitter extends SseEmitter {
+
+                final Semaphore sent = new Semaphore(0);
+                volatile int completions;
+
+                @Override
+                public void send(SseEventBuilder builder) {
+                        sent.release();
+                }
+
+                @Override
+                public void complete() {
+                        completions++;
+                }
+        }
+}
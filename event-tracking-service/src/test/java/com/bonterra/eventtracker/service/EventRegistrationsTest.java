@@ -0,0 +1,142 @@
+package com.bonterra.eventtracker.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import com.bonterra.eventtracker.entity.Event;
+import com.bonterra.eventtracker.repository.EventRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class EventRegistrationsTest {
+
+        private static final int CAPACITY = 500;
+        private static final int REGISTRANTS = 2000;
+
+        @Autowired
+        private EventRegistrations eventRegistrations;
+
+        @Autowired
+        private EventRepository eventRepository;
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @BeforeEach
+        void setUp() {
+                eventRepository.deleteAll();
+        }
+
+        @Test
+        void testRegister_ConcurrentRegistrantsNeverOverbook(TestReporter reporter) throws Exception {
+                Event event = new Event("Sold Out Show", "Description",
+                                LocalDateTime.of(2030, 9, 1, 19, 0), LocalDateTime.of(2030, 9, 1, 22, 0), "Arena");
+                event.setMaxAttendees(CAPACITY);
+                UUID id = eventRepository.save(event).getId();
+
+                AtomicInteger accepted = new AtomicInteger();
+                long elapsed = race(REGISTRANTS, () -> {
+                        if (eventRegistrations.register(id).orElseThrow().accepted()) {
+                                accepted.incrementAndGet();
+                        }
+                });
+                reporter.publishEntry("registrations", String.format("%d in %d ms (%.0f/s)",
+                                REGISTRANTS, elapsed / 1_000_000, REGISTRANTS * 1e9 / elapsed));
+
+                assertEquals(CAPACITY, accepted.get());
+                assertEquals(CAPACITY, eventRegistrations.status(id).orElseThrow().registered());
+                eventRegistrations.flush();
+                assertEquals(CAPACITY, registeredInTable(id));
+
+                // Cancellations and new registrations interleave; whatever the order,
+                // every admitted registration is backed by a place
+                AtomicInteger balance = new AtomicInteger(CAPACITY);
+                race(REGISTRANTS, () -> {
+                        if (ThreadLocalRandom.current().nextBoolean()) {
+                                if (eventRegistrations.cancel(id).orElseThrow().accepted()) {
+                                        balance.decrementAndGet();
+                                }
+                        } else if (eventRegistrations.register(id).orElseThrow().accepted()) {
+                                balance.incrementAndGet();
+                        }
+                });
+                int registered = eventRegistrations.status(id).orElseThrow().registered();
+                assertEquals(balance.get(), registered);
+                assertTrue(registered <= CAPACITY);
+                eventRegistrations.flush();
+                assertEquals(registered, registeredInTable(id));
+        }
+
+        @Test
+        void testRegister_LoweredCapacityAppliesToLaterRegistrations() {
+                Event event = new Event("Shrinking Venue", "Description",
+                                LocalDateTime.of(2030, 10, 1, 19, 0), LocalDateTime.of(2030, 10, 1, 22, 0), "Studio");
+                event.setMaxAttendees(10);
+                Event saved = eventRepository.save(event);
+                for (int i = 0; i < 8; i++) {
+                        assertTrue(eventRegistrations.register(saved.getId()).orElseThrow().accepted());
+                }
+                eventRegistrations.flush();
+
+                Event reloaded = eventRepository.findById(saved.getId()).orElseThrow();
+                assertEquals(8, reloaded.getRegisteredAttendees());
+                reloaded.setMaxAttendees(6);
+                eventRepository.save(reloaded);
+                // Saving the entity never writes over the flushed count
+                assertEquals(8, registeredInTable(saved.getId()));
+
+                EventRegistrations.Status status = eventRegistrations.status(saved.getId()).orElseThrow();
+                assertEquals(6, status.capacity());
+                assertEquals(8, status.registered());
+                assertTrue(eventRegistrations.cancel(saved.getId()).orElseThrow().accepted());
+                assertTrue(eventRegistrations.cancel(saved.getId()).orElseThrow().accepted());
+                assertEquals(6, eventRegistrations.status(saved.getId()).orElseThrow().registered());
+                assertFalse(eventRegistrations.register(saved.getId()).orElseThrow().accepted());
+
+                eventRegistrations.flush();
+                assertEquals(6, registeredInTable(saved.getId()));
+        }
+
+        private int registeredInTable(UUID id) {
+                return jdbcTemplate.queryForObject("select registered_attendees from events where id = ?",
+                                Integer.class, id);
+        }
+
+        /**
+         * Runs {@code task} once on each of {@code threads} threads, all released
+         * together, and returns the nanoseconds until the last one finished.
+         */
+        private static long race(int threads, Runnable task) throws InterruptedException {
+                CountDownLatch start = new CountDownLatch(1);
+                CountDownLatch done = new CountDownLatch(threads);
+                for (int i = 0; i < threads; i++) {
+                        new Thread(() -> {
+                                try {
+                                        start.await();
+                                        task.run();
+                                } catch (InterruptedException e) {
+                                        Thread.currentThread().interrupt();
+                                } finally {
+                                        done.countDown();
+                                }
+                        }).start();
+                }
+                long started = System.nanoTime();
+                start.countDown();
+                done.await();
+                return System.nanoTime() - started;
+        }
+}
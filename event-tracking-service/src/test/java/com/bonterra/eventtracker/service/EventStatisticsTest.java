@@ -0,0 +1,61 @@
+package com.bonterra.eventtracker.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.bonterra.eventtracker.entity.Event;
+import com.bonterra.eventtracker.repository.EventRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class EventStatisticsTest {
+
+        @Autowired
+        private EventStatistics eventStatistics;
+
+        @Autowired
+        private EventRepository eventRepository;
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @BeforeEach
+        void setUp() {
+                eventRepository.deleteAll();
+        }
+
+        @Test
+        void testReconcile_CorrectsWritesThatBypassedTheApplication() {
+                Event event = new Event("Tracked Event", "Description",
+                                LocalDateTime.of(2030, 1, 10, 9, 0), LocalDateTime.of(2030, 1, 10, 17, 0), "Hall A");
+                event.setMaxAttendees(40);
+                eventRepository.save(event);
+                assertFalse(eventStatistics.reconcile());
+
+                // A write made straight to the table never reaches the change listener
+                jdbcTemplate.update("insert into events (id, name, normalized_name, description, start_date, "
+                                + "end_date, location, max_attendees, version) values (?, ?, ?, ?, ?, ?, ?, ?, 0)",
+                                UUID.randomUUID(), "Untracked Event", "untracked event", "Description",
+                                LocalDateTime.of(2024, 2, 1, 9, 0), LocalDateTime.of(2024, 2, 1, 17, 0), "Hall B", 60);
+                assertEquals(1, eventStatistics.snapshot().total());
+
+                assertTrue(eventStatistics.reconcile());
+
+                EventStatistics.Snapshot snapshot = eventStatistics.snapshot();
+                assertEquals(2, snapshot.total());
+                assertEquals(1, snapshot.archived());
+                assertEquals(100, snapshot.totalMaxAttendees());
+                assertEquals(1L, snapshot.byMonth().get("2024-02"));
+                assertEquals(1L, snapshot.byLocation().get("Hall B"));
+                assertFalse(eventStatistics.reconcile());
+        }
+}
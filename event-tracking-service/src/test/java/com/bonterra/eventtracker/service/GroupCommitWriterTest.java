@@ -0,0 +1,120 @@
+package com.bonterra.eventtracker.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.bonterra.eventtracker.entity.Event;
+import com.bonterra.eventtracker.repository.EventRepository;
+import com.bonterra.eventtracker.service.BatchResult.ItemResult;
+import com.bonterra.eventtracker.service.BatchResult.Status;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+                "eventtracker.ingest.group-commit.enabled=true",
+                "eventtracker.ingest.group-commit.max-wait=20ms"
+})
+public class GroupCommitWriterTest {
+
+        @Autowired
+        private WebApplicationContext webApplicationContext;
+
+        @Autowired
+        private EventRepository eventRepository;
+
+        @Autowired
+        private GroupCommitWriter groupCommitWriter;
+
+        @Autowired
+        private EventIngestService eventIngestService;
+
+        private MockMvc mockMvc;
+
+        @BeforeEach
+        void setUp() {
+                mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+                eventRepository.deleteAll();
+        }
+
+        @Test
+        void testSubmit_ResolvesDuplicateNamesWithinABatch() {
+                eventRepository.save(event("Existing Event", 0));
+
+                List<CompletableFuture<ItemResult>> futures = new ArrayList<>();
+                for (int i = 0; i < 50; i++) {
+                        futures.add(groupCommitWriter.submit(event("Queued Event " + i, i)));
+                }
+                futures.add(groupCommitWriter.submit(event("QUEUED EVENT 7", 7)));
+                futures.add(groupCommitWriter.submit(event("existing event", 1)));
+
+                List<ItemResult> results = futures.stream().map(CompletableFuture::join).toList();
+                for (int i = 0; i < 50; i++) {
+                        assertEquals(Status.CREATED, results.get(i).status());
+                        assertNotNull(results.get(i).id());
+                }
+                assertEquals(Status.DUPLICATE, results.get(50).status());
+                assertEquals(Status.DUPLICATE, results.get(51).status());
+                assertEquals(51, eventRepository.count());
+        }
+
+        @Test
+        void testCreateEvent_AnswersAfterBatchCommits() throws Exception {
+                String eventJson = "{\"name\":\"Grouped Event\",\"description\":\"Description\"," +
+                                "\"startDate\":\"2025-12-01T09:00:00\",\"endDate\":\"2025-12-01T17:00:00\"," +
+                                "\"location\":\"Location\"}";
+
+                mockMvc.perform(post("/api/events")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(eventJson))
+                                .andExpect(status().isCreated())
+                                .andExpect(header().exists("ETag"))
+                                .andExpect(jsonPath("$.id").exists())
+                                .andExpect(jsonPath("$.name").value("Grouped Event"));
+
+                mockMvc.perform(post("/api/events")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(eventJson.replace("Grouped Event", "grouped event")))
+                                .andExpect(status().isConflict())
+                                .andExpect(jsonPath("$.message").value("An event with this name already exists"));
+        }
+
+        @Test
+        void testSubmit_FailsOnceTheWriterHasStopped() throws Exception {
+                GroupCommitWriter writer = new GroupCommitWriter(eventIngestService, new SimpleMeterRegistry(),
+                                10, 10, Duration.ofMillis(5));
+                writer.start();
+                writer.stop();
+
+                CompletableFuture<ItemResult> late = writer.submit(event("Late Event", 0));
+                ExecutionException failure = assertThrows(ExecutionException.class,
+                                () -> late.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+                assertEquals(0, eventRepository.count());
+        }
+
+        private static Event event(String name, int day) {
+                LocalDateTime start = LocalDateTime.of(2026, 1, 1, 9, 0).plusDays(day);
+                return new Event(name, "Description", start, start.plusHours(8), "Location");
+        }
+}
@@ -0,0 +1,73 @@
+package com.bonterra.eventtracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntervalTreeTest {
+
+        private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+        private record Interval(LocalDateTime start, LocalDateTime end, UUID id) {
+        }
+
+        @Test
+        void testOverlapping_MatchesBruteForce() {
+                Random random = new Random(42);
+                IntervalTree tree = new IntervalTree();
+                List<Interval> intervals = new ArrayList<>();
+                for (int i = 0; i < 2000; i++) {
+                        LocalDateTime start = BASE.plusHours(random.nextInt(10_000));
+                        Interval interval = new Interval(start, start.plusHours(1 + random.nextInt(200)), UUID.randomUUID());
+                        intervals.add(interval);
+                        tree.insert(interval.start(), interval.end(), interval.id());
+                }
+                for (int i = 0; i < 500; i++) {
+                        Interval removed = intervals.remove(random.nextInt(intervals.size()));
+                        assertTrue(tree.remove(removed.start(), removed.id()));
+                }
+                assertEquals(intervals.size(), tree.size());
+
+                intervals.sort(Comparator.comparing(Interval::start).thenComparing(Interval::id));
+                for (int i = 0; i < 200; i++) {
+                        LocalDateTime from = BASE.plusHours(random.nextInt(10_000));
+                        LocalDateTime to = from.plusHours(1 + random.nextInt(300));
+
+                        List<UUID> expected = intervals.stream()
+                                        .filter(it -> it.start().isBefore(to) && it.end().isAfter(from))
+                                        .map(Interval::id)
+                                        .toList();
+                        List<UUID> actual = new ArrayList<>();
+                        tree.overlapping(from, to, actual::add);
+                        assertEquals(expected, actual);
+                }
+        }
+
+        @Test
+        void testOverlapping_TouchingIntervalsDoNotOverlap() {
+                IntervalTree tree = new IntervalTree();
+                UUID id = UUID.randomUUID();
+                tree.insert(BASE, BASE.plusHours(2), id);
+
+                List<UUID> before = new ArrayList<>();
+                tree.overlapping(BASE.minusHours(1), BASE, before::add);
+                List<UUID> after = new ArrayList<>();
+                tree.overlapping(BASE.plusHours(2), BASE.plusHours(3), after::add);
+                List<UUID> inside = new ArrayList<>();
+                tree.overlapping(BASE.plusHours(1), BASE.plusHours(3), inside::add);
+
+                assertTrue(before.isEmpty());
+                assertTrue(after.isEmpty());
+                assertEquals(List.of(id), inside);
+                assertFalse(tree.remove(BASE.plusHours(1), id));
+        }
+}
@@ -4,10 +4,23 @@ import EventForm from './EventForm';
 import { eventService } from '../services/eventService';
 import '../styles/EventDashboard.css';
 
+const byStartDate = (a, b) => new Date(a.startDate) - new Date(b.startDate);
+const byEndDateDesc = (a, b) => new Date(b.endDate) - new Date(a.endDate);
+const without = (id) => (events) => events.filter(e => e.id !== id);
+
+// Replaces the event in the list, ignoring deltas older than what is shown
+const upsert = (event, compare) => (events) => {
+    const current = events.find(e => e.id === event.id);
+    if (current && current.version > event.version) {
+        return events;
+    }
+    return [...events.filter(e => e.id !== event.id), event].sort(compare);
+};
+
 const EventDashboard = () => {
-    const [events, setEvents] = useState([]);
     const [activeEvents, setActiveEvents] = useState([]);
     const [archivedEvents, setArchivedEvents] = useState([]);
+    const [archivedCursor, setArchivedCursor] = useState(null);
     const [loading, setLoading] = useState(false);
     const [error, setError] = useState(null);
     const [showForm, setShowForm] = useState(false);
@@ -16,15 +29,33 @@ const EventDashboard = () => {
 
     useEffect(() => {
         loadEvents();
+        return eventService.subscribeToChanges({ onDelta: applyDelta, onReset: loadEvents });
     }, []);
 
+    const applyDelta = ({ type, id, event }) => {
+        if (type === 'DELETED') {
+            setActiveEvents(without(id));
+            setArchivedEvents(without(id));
+        } else if (new Date(event.endDate) >= new Date()) {
+            setArchivedEvents(without(id));
+            setActiveEvents(upsert(event, byStartDate));
+        } else {
+            setActiveEvents(without(id));
+            setArchivedEvents(upsert(event, byEndDateDesc));
+        }
+    };
+
     const loadEvents = async () => {
         try {
             setLoading(true);
             setError(null);
-            const data = await eventService.getAllEvents();
-            setEvents(data);
-            categorizeEvents(data);
+            const [active, archived] = await Promise.all([
+                eventService.getActiveEvents(),
+                eventService.getArchivedEvents()
+            ]);
+            setActiveEvents(active);
+            setArchivedEvents(archived.events);
+            setArchivedCursor(archived.nextCursor);
         } catch (err) {
             setError('Failed to load events. Please try again.');
             console.error(err);
@@ -33,37 +64,32 @@ const EventDashboard = () => {
         }
     };
 
-    const categorizeEvents = (allEvents) => {
-        const now = new Date();
-        const active = [];
-        const archived = [];
-
-        allEvents.forEach(event => {
-            const endDate = new Date(event.endDate);
-            if (endDate < now) {
-                archived.push(event);
-            } else {
-                active.push(event);
-            }
-        });
-
-        setActiveEvents(active.sort((a, b) => new Date(a.startDate) - new Date(b.startDate)));
-        setArchivedEvents(archived.sort((a, b) => new Date(b.endDate) - new Date(a.endDate)));
+    const loadMoreArchived = async () => {
+        try {
+            const archived = await eventService.getArchivedEvents(archivedCursor);
+            setArchivedEvents(previous => [...previous, ...archived.events]);
+            setArchivedCursor(archived.nextCursor);
+        } catch (err) {
+            setError('Failed to load archived events. Please try again.');
+            console.error(err);
+        }
     };
 
     const handleCreateOrUpdate = async (formData) => {
         try {
             setLoading(true);
+            // The change stream delivers the same delta to every other dashboard
             if (editingEvent) {
-                await eventService.updateEvent(editingEvent.id, formData);
+                const updated = await eventService.updateEvent(editingEvent.id, formData);
+                applyDelta({ type: 'UPDATED', id: updated.id, event: updated });
                 setSuccessMessage('Event updated successfully!');
             } else {
-                await eventService.createEvent(formData);
+                const created = await eventService.createEvent(formData);
+                applyDelta({ type: 'CREATED', id: created.id, event: created });
                 setSuccessMessage('Event created successfully!');
             }
             setShowForm(false);
             setEditingEvent(null);
-            loadEvents();
         } catch (err) {
             setError(err.response?.data?.message || 'Failed to save event');
         } finally {
@@ -71,9 +97,14 @@ const EventDashboard = () => {
         }
     };
 
-    const handleEdit = (event) => {
-        setEditingEvent(event);
-        setShowForm(true);
+    // List rows carry only the table columns; the form needs every field
+    const handleEdit = async (event) => {
+        try {
+            setEditingEvent(await eventService.getEventById(event.id));
+            setShowForm(true);
+        } catch (err) {
+            setError('Failed to load event');
+        }
     };
 
     const handleDelete = async (eventId) => {
@@ -81,8 +112,8 @@ const EventDashboard = () => {
             try {
                 setLoading(true);
                 await eventService.deleteEvent(eventId);
+                applyDelta({ type: 'DELETED', id: eventId });
                 setSuccessMessage('Event deleted successfully!');
-                loadEvents();
             } catch (err) {
                 setError('Failed to delete event');
             } finally {
@@ -129,7 +160,7 @@ const EventDashboard = () => {
                             initialData={editingEvent}
                             onSubmit={handleCreateOrUpdate}
                             onCancel={handleCancel}
-                            existingEvents={events}
+                            existingEvents={[...activeEvents, ...archivedEvents]}
                         />
                     </div>
                 ) : (
@@ -158,7 +189,7 @@ const EventDashboard = () => {
                         </div>
 
                         <div className="section">
-                            <h2>Archived Events ({archivedEvents.length})</h2>
+                            <h2>Archived Events ({archivedEvents.length}{archivedCursor ? '+' : ''})</h2>
                             {loading ? (
                                 <div className="loading">Loading events...</div>
                             ) : (
@@ -169,6 +200,11 @@ const EventDashboard = () => {
                                     isArchived={true}
                                 />
                             )}
+                            {!loading && archivedCursor && (
+                                <button className="btn btn-secondary" onClick={loadMoreArchived}>
+                                    Load more
+                                </button>
+                            )}
                         </div>
                     </>
                 )}
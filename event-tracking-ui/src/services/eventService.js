@@ -1,21 +1,79 @@
 import axios from 'axios';
 
 const API_BASE_URL = 'http://localhost:8080/api/events';
+const PAGE_SIZE = 500;
+// Columns the event table shows; lists leave out the notes unless asked for them
+const TABLE_FIELDS = 'name,description,startDate,endDate,location,minAttendees,maxAttendees,version';
+// Credentials let the server's primary-pinning cookie come back after a write,
+// so the reads that follow one see it even while the replicas catch up
+const api = axios.create({ withCredentials: true });
+
+const fetchAllPages = async (url) => {
+    const events = [];
+    let cursor = null;
+    do {
+        const params = { limit: PAGE_SIZE, fields: TABLE_FIELDS, ...(cursor && { cursor }) };
+        const response = await api.get(url, { params });
+        events.push(...response.data);
+        cursor = response.headers['x-next-cursor'];
+    } while (cursor);
+    return events;
+};
 
 export const eventService = {
     getAllEvents: async () => {
         try {
-            const response = await axios.get(API_BASE_URL);
-            return response.data;
+            return await fetchAllPages(API_BASE_URL);
         } catch (error) {
             console.error('Error fetching events:', error);
             throw error;
         }
     },
 
+    getActiveEvents: async () => {
+        try {
+            return await fetchAllPages(`${API_BASE_URL}/active`);
+        } catch (error) {
+            console.error('Error fetching active events:', error);
+            throw error;
+        }
+    },
+
+    getArchivedEvents: async (cursor = null) => {
+        try {
+            const params = { limit: PAGE_SIZE, fields: TABLE_FIELDS, ...(cursor && { cursor }) };
+            const response = await api.get(`${API_BASE_URL}/archived`, { params });
+            return { events: response.data, nextCursor: response.headers['x-next-cursor'] || null };
+        } catch (error) {
+            console.error('Error fetching archived events:', error);
+            throw error;
+        }
+    },
+
+    searchEvents: async (query, offset = 0, limit = 20) => {
+        try {
+            const response = await api.get(`${API_BASE_URL}/search`, { params: { q: query, offset, limit, fields: TABLE_FIELDS } });
+            return { events: response.data, total: Number(response.headers['x-total-count'] || 0) };
+        } catch (error) {
+            console.error('Error searching events:', error);
+            throw error;
+        }
+    },
+
+    // Pushes created/updated/deleted deltas as they commit. The browser reconnects
+    // with Last-Event-ID on its own; a reset means deltas were missed and the
+    // caller must reload. Returns a function that closes the stream.
+    subscribeToChanges: ({ onDelta, onReset }) => {
+        const source = new EventSource(`${API_BASE_URL}/stream`);
+        const handleDelta = (message) => onDelta(JSON.parse(message.data));
+        ['CREATED', 'UPDATED', 'DELETED'].forEach(type => source.addEventListener(type, handleDelta));
+        source.addEventListener('reset', () => onReset());
+        return () => source.close();
+    },
+
     getEventById: async (id) => {
         try {
-            const response = await axios.get(`${API_BASE_URL}/${id}`);
+            const response = await api.get(`${API_BASE_URL}/${id}`);
             return response.data;
         } catch (error) {
             console.error(`Error fetching event ${id}:`, error);
@@ -25,7 +83,7 @@ export const eventService = {
 
     createEvent: async (event) => {
         try {
-            const response = await axios.post(API_BASE_URL, event);
+            const response = await api.post(API_BASE_URL, event);
             return response.data;
         } catch (error) {
             console.error('Error creating event:', error);
@@ -35,7 +93,7 @@ export const eventService = {
 
     updateEvent: async (id, event) => {
         try {
-            const response = await axios.put(`${API_BASE_URL}/${id}`, event);
+            const response = await api.put(`${API_BASE_URL}/${id}`, event);
             return response.data;
         } catch (error) {
             console.error(`Error updating event ${id}:`, error);
@@ -45,7 +103,7 @@ export const eventService = {
 
     deleteEvent: async (id) => {
         try {
-            await axios.delete(`${API_BASE_URL}/${id}`);
+            await api.delete(`${API_BASE_URL}/${id}`);
         } catch (error) {
             console.error(`Error deleting event ${id}:`, error);
             throw error;